@@ -0,0 +1,193 @@
+/*
+ *      Config-Benchmarks - Benchmarks of Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.jonathanxd.config.Config;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.backend.Backend;
+import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.binary.BinaryBackend;
+import com.github.jonathanxd.config.backend.configurate.ConfigurateBackend;
+import com.github.jonathanxd.config.backend.jackson.JacksonBackend;
+import com.github.jonathanxd.config.backend.jackson.xml.JacksonXmlBackend;
+import com.github.jonathanxd.config.backend.json.JsonBackend;
+import com.github.jonathanxd.config.backend.toml.TomlBackend;
+import com.github.jonathanxd.config.backend.yaml.YamlBackend;
+import com.github.jonathanxd.iutils.box.IMutableBox;
+import com.github.jonathanxd.iutils.box.MutableBox;
+import com.github.jonathanxd.iutils.type.TypeParameterProvider;
+
+import org.json.simple.parser.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.snakeyaml.engine.v2.api.Dump;
+import org.snakeyaml.engine.v2.api.DumpSettings;
+import org.snakeyaml.engine.v2.api.Load;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.spongepowered.configurate.hocon.HoconConfigurationLoader;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks load and save of the same document through all backends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BackendBenchmark {
+
+    @Param({"json", "jackson", "yaml", "yaml-1.2", "toml", "xml", "hocon", "binary"})
+    public String backend;
+
+    @Param({"10", "1000"})
+    public int sections;
+
+    private Config config;
+
+    /**
+     * File of backends that are not backed by a string box, deleted on tear down.
+     */
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        IMutableBox<String> box = new MutableBox<>();
+
+        if (this.backend.equals("binary"))
+            this.file = Files.createTempFile("config", ".bin");
+
+        this.config = new Config(BackendBenchmark.createBackend(this.backend, box, this.file));
+
+        for (int i = 0; i < this.sections; ++i) {
+            Key<Void> section = this.config.getRootKey().getKeySection("section" + i);
+            List<String> tags = new ArrayList<>();
+
+            for (int t = 0; t < 5; ++t) {
+                tags.add("tag" + t);
+            }
+
+            section.getKey("name", String.class).setValue("Section " + i);
+            section.getKey("enabled", Boolean.class).setValue(i % 2 == 0);
+            section.getKey("limit", Integer.class).setValue(i * 10);
+            section.getKey("ratio", Double.class).setValue(i / 3.0);
+            section.getKey("tags", new TypeParameterProvider<List<String>>() {}.createTypeInfo()).setValue(tags);
+            section.getKeySection("server").getKey("host", String.class).setValue("host" + i + ".example.com");
+            section.getKeySection("server").getKey("port", Integer.class).setValue(8000 + i);
+        }
+
+        this.config.save();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (this.file != null)
+            Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public Config load() {
+        this.config.load();
+        return this.config;
+    }
+
+    @Benchmark
+    public Config save() {
+        this.config.save();
+        return this.config;
+    }
+
+    private static Backend createBackend(String name, IMutableBox<String> box, Path file) {
+        ConfigIO io = ConfigIO.stringBox(box);
+
+        switch (name) {
+            case "json":
+                return new JsonBackend(new JSONParser(), io);
+            case "jackson":
+                return new JacksonBackend(new ObjectMapper(), io);
+            case "yaml": {
+                DumperOptions options = new DumperOptions();
+                options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+                return new YamlBackend(new Yaml(options), io);
+            }
+            case "yaml-1.2":
+                return new com.github.jonathanxd.config.backend.yaml1_2.YamlBackend(
+                        new Load(LoadSettings.builder().build()),
+                        new Dump(DumpSettings.builder().build()),
+                        io);
+            case "toml":
+                return new TomlBackend(io);
+            case "xml":
+                return new JacksonXmlBackend(new XmlMapper(), io);
+            case "hocon":
+                return new ConfigurateBackend(HoconConfigurationLoader.builder()
+                        .source(() -> new BufferedReader(new StringReader(box.get())))
+                        .sink(() -> new BufferedWriter(new BoxWriter(box)))
+                        .build());
+            case "binary":
+                return new BinaryBackend(file);
+            default:
+                throw new IllegalArgumentException("Unknown backend: '" + name + "'.");
+        }
+    }
+
+    /**
+     * Writer that stores written string in a box when closed.
+     */
+    static final class BoxWriter extends StringWriter {
+        private final IMutableBox<String> box;
+
+        BoxWriter(IMutableBox<String> box) {
+            this.box = box;
+        }
+
+        @Override
+        public void close() {
+            this.box.set(this.toString());
+        }
+    }
+}
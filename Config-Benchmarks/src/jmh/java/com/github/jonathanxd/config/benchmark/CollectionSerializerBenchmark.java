@@ -0,0 +1,105 @@
+/*
+ *      Config-Benchmarks - Benchmarks of Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.benchmark;
+
+import com.github.jonathanxd.config.Config;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.type.TypeParameterProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks list and map serialization and deserialization through {@link Key#setValue(Object)}
+ * and {@link Key#getValue()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollectionSerializerBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private List<Integer> list;
+    private Map<String, Integer> map;
+    private Key<List<Integer>> listKey;
+    private Key<Map<String, Integer>> mapKey;
+
+    @Setup
+    public void setup() {
+        this.list = new ArrayList<>(this.size);
+        this.map = new LinkedHashMap<>();
+
+        for (int i = 0; i < this.size; ++i) {
+            this.list.add(i);
+            this.map.put("key" + i, i);
+        }
+
+        Config config = new Config(new MapBackend());
+
+        this.listKey = config.getRootKey().getKey("list", new TypeParameterProvider<List<Integer>>() {}.createTypeInfo());
+        this.mapKey = config.getRootKey().getKey("map", new TypeParameterProvider<Map<String, Integer>>() {}.createTypeInfo());
+
+        this.listKey.setValue(this.list);
+        this.mapKey.setValue(this.map);
+    }
+
+    @Benchmark
+    public void setList() {
+        this.listKey.setValue(this.list);
+    }
+
+    @Benchmark
+    public List<Integer> getList() {
+        return this.listKey.getValue();
+    }
+
+    @Benchmark
+    public void setMap() {
+        this.mapKey.setValue(this.map);
+    }
+
+    @Benchmark
+    public Map<String, Integer> getMap() {
+        return this.mapKey.getValue();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *      Config-Benchmarks - Benchmarks of Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.benchmark;
+
+import com.github.jonathanxd.config.CompiledKey;
+import com.github.jonathanxd.config.Config;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Key#getValue()} and {@link Key#setValue(Object)} of a value at different
+ * section nesting depths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyAccessBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private Key<Integer> key;
+    private CompiledKey<Integer> compiledKey;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        Config config = new Config(new MapBackend());
+        Key<?> section = config.getRootKey();
+
+        for (int i = 1; i < this.depth; ++i) {
+            section = section.getKeySection("section" + i);
+        }
+
+        this.key = section.getKey("value", Integer.class);
+        this.key.setValue(42);
+        this.compiledKey = this.key.compile();
+    }
+
+    @Benchmark
+    public Integer getValue() {
+        return this.key.getValue();
+    }
+
+    @Benchmark
+    public int getInt() {
+        return this.key.getInt();
+    }
+
+    @Benchmark
+    public Integer getCompiledValue() {
+        return this.compiledKey.getValue();
+    }
+
+    @Benchmark
+    public void setValue() {
+        this.key.setValue(++this.counter);
+    }
+
+    @Benchmark
+    public void setInt() {
+        this.key.setInt(++this.counter);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *      Config-Benchmarks - Benchmarks of Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.benchmark;
+
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.Storage;
+import com.github.jonathanxd.config.serialize.Serializer;
+import com.github.jonathanxd.config.serialize.Serializers;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Array;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Serializers#findSerializer(TypeInfo)} with many registered serializers.
+ *
+ * Resolutions are cached, so {@code find*} benchmarks measure cache hits, and {@code resolve*}
+ * benchmarks measure the first lookup of a type, with the cache invalidated before each
+ * invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializerLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int registered;
+
+    private Serializers serializers;
+    private TypeInfo<?> registeredType;
+    private TypeInfo<?> globalType;
+    private TypeInfo<?> missingType;
+
+    @Setup
+    public void setup() {
+        this.serializers = new Serializers();
+
+        // Distinct array types are used as distinct registered types
+        Class<?>[] bases = {String.class, Integer.class, Long.class, Double.class, Boolean.class};
+        TypeInfo<?> last = null;
+
+        for (int i = 0; i < this.registered; ++i) {
+            Class<?> type = bases[i % bases.length];
+
+            for (int d = 0; d <= i / bases.length; ++d) {
+                type = Array.newInstance(type, 0).getClass();
+            }
+
+            last = TypeInfo.of(type);
+            this.serializers.register(last, new NoOpSerializer());
+        }
+
+        this.registeredType = last;
+        this.globalType = TypeInfo.of(UUID.class);
+        this.missingType = TypeInfo.of(Thread.class);
+    }
+
+    @Benchmark
+    public Optional<?> findRegistered() {
+        return this.serializers.findSerializer(this.registeredType);
+    }
+
+    @Benchmark
+    public Optional<?> findGlobal() {
+        return this.serializers.findSerializer(this.globalType);
+    }
+
+    @Benchmark
+    public Optional<?> findMissing() {
+        return this.serializers.findSerializer(this.missingType);
+    }
+
+    @Benchmark
+    public Optional<?> resolveRegistered(Uncached uncached) {
+        return this.serializers.findSerializer(this.registeredType);
+    }
+
+    @Benchmark
+    public Optional<?> resolveGlobal(Uncached uncached) {
+        return this.serializers.findSerializer(this.globalType);
+    }
+
+    @Benchmark
+    public Optional<?> resolveMissing(Uncached uncached) {
+        return this.serializers.findSerializer(this.missingType);
+    }
+
+    /**
+     * Invalidates cached resolutions before each invocation by registering again the serializer
+     * of the last registered type, which leaves registered serializers unchanged.
+     */
+    @State(Scope.Thread)
+    public static class Uncached {
+
+        @Setup(Level.Invocation)
+        public void invalidate(SerializerLookupBenchmark benchmark) {
+            benchmark.serializers.register(benchmark.registeredType, new NoOpSerializer());
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    static final class NoOpSerializer implements Serializer {
+
+        @Override
+        public void serialize(Object value, Key key, TypeInfo typeInfo, Storage storage, Serializers serializers) {
+        }
+
+        @Override
+        public Object deserialize(Key key, TypeInfo typeInfo, Storage storage, Serializers serializers) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *      Config-Benchmarks - Benchmarks of Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.benchmark;
+
+import com.github.jonathanxd.config.Config;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.text.Colors;
+import com.github.jonathanxd.iutils.text.Styles;
+import com.github.jonathanxd.iutils.text.Text;
+import com.github.jonathanxd.iutils.text.TextComponent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serialization and deserialization of {@link TextComponent} trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextSerializerBenchmark {
+
+    private TextComponent text;
+    private Key<TextComponent> key;
+
+    @Setup
+    public void setup() {
+        this.text = Text.of(Colors.RED, Styles.BOLD, "Hello ", Colors.GREEN, Text.variable("user"), ". ",
+                Colors.WHITE, Styles.ITALIC, "You have ", Text.variable("count"), " new messages.");
+
+        Config config = new Config(new MapBackend());
+
+        this.key = config.getRootKey().getKeySection("messages").getKey("welcome", TextComponent.class);
+        this.key.setValue(this.text);
+    }
+
+    @Benchmark
+    public void setText() {
+        this.key.setValue(this.text);
+    }
+
+    @Benchmark
+    public TextComponent getText() {
+        return this.key.getValue();
+    }
+}
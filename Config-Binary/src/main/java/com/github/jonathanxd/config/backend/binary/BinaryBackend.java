@@ -0,0 +1,164 @@
+/*
+ *      Config-Binary - Binary backend for Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend.binary;
+
+import com.github.jonathanxd.config.ConfigMetrics;
+import com.github.jonathanxd.config.StorageMode;
+import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.StreamingBackend;
+import com.github.jonathanxd.config.backend.TreeBuilder;
+import com.github.jonathanxd.config.backend.TreeHandler;
+import com.github.jonathanxd.config.backend.TreeSource;
+import com.github.jonathanxd.iutils.exception.RethrowException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Backend which saves and loads configuration in {@link BinaryFormat binary format}.
+ *
+ * Configuration is written to a temporary file which is forced to the storage device and then
+ * replaces the configuration file, so a failed save never leaves a partially written
+ * configuration. Save and load operations may throw
+ * {@link IOException}.
+ */
+public class BinaryBackend implements StreamingBackend {
+
+    private final Path path;
+    private volatile ConfigMetrics metrics = ConfigMetrics.NONE;
+
+    /**
+     * Creates a binary backend.
+     *
+     * @param path Path of configuration file.
+     */
+    public BinaryBackend(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void setMetrics(ConfigMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void load(TreeHandler handler) {
+        try {
+            ConfigMetrics metrics = this.metrics;
+            long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(this.path));
+            long size = buffer.remaining();
+
+            BinaryFormat.read(buffer, handler);
+
+            if (metrics.isEnabled())
+                metrics.parse(this.getClass().getSimpleName(), System.nanoTime() - start, size);
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    @Override
+    public Map<Object, Object> load() {
+        TreeBuilder builder = new TreeBuilder(StorageMode.DEFAULT);
+        this.load(builder);
+        return builder.getRoot();
+    }
+
+    @Override
+    public void save(Map<Object, Object> map) {
+        this.save(TreeSource.of(map));
+    }
+
+    @Override
+    public void save(TreeSource source) {
+        try {
+            ConfigMetrics metrics = this.metrics;
+            long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+            long size = BinaryBackend.write(this.path, new byte[0], source, true);
+
+            if (metrics.isEnabled())
+                metrics.render(this.getClass().getSimpleName(), System.nanoTime() - start, size);
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    /**
+     * Gets the path of configuration file.
+     *
+     * @return Path of configuration file.
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Writes {@code header} followed by the document of {@code source} to a temporary file, and
+     * then replaces {@code path} with the temporary file.
+     *
+     * @param path   Path of file.
+     * @param header Header bytes.
+     * @param source Source of configuration tree.
+     * @param sync   Whether written contents should be forced to the storage device before they
+     *               replace {@code path}.
+     * @return Size of written file.
+     * @throws IOException If file could not be written.
+     * @see ConfigIO.AtomicOutputStream
+     */
+    static long write(Path path, byte[] header, TreeSource source, boolean sync) throws IOException {
+        ConfigIO.AtomicOutputStream atomic = new ConfigIO.AtomicOutputStream(path, sync);
+
+        try {
+            OutputStream out = new BufferedOutputStream(atomic);
+            out.write(header);
+            BinaryFormat.write(source, out);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            try {
+                atomic.discard();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        atomic.close();
+        return Files.size(path);
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryBackend[path=" + this.path + "]";
+    }
+}
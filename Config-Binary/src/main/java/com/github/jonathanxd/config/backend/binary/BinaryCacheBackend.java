@@ -0,0 +1,251 @@
+/*
+ *      Config-Binary - Binary backend for Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend.binary;
+
+import com.github.jonathanxd.config.ConfigMetrics;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.StorageMode;
+import com.github.jonathanxd.config.UnsupportedValueTypeException;
+import com.github.jonathanxd.config.backend.AbstractIOBackend;
+import com.github.jonathanxd.config.backend.Backend;
+import com.github.jonathanxd.config.backend.TreeBuilder;
+import com.github.jonathanxd.config.backend.TreeSource;
+import com.github.jonathanxd.config.serialize.Serializers;
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Backend which caches the configuration of a text backend in a binary sidecar file.
+ *
+ * The sidecar records the size, modification time and hash of the text file it was created from,
+ * and is only loaded while the text file is unchanged, otherwise the text file is parsed and the
+ * sidecar is rewritten. Saves are written through to the text file and then to the sidecar.
+ *
+ * The sidecar is a cache: failures to write it (for example, because the text backend loaded a
+ * value which has no binary representation) are ignored and the stale sidecar is deleted.
+ */
+public class BinaryCacheBackend implements Backend {
+
+    private final Backend backend;
+    private final Path file;
+    private final Path sidecar;
+
+    /**
+     * Creates a backend which caches the configuration of {@code backend}.
+     *
+     * @param backend Text backend.
+     * @param file    Text file which {@code backend} reads and writes.
+     * @param sidecar Path of binary sidecar file.
+     */
+    public BinaryCacheBackend(Backend backend, Path file, Path sidecar) {
+        this.backend = backend;
+        this.file = file;
+        this.sidecar = sidecar;
+    }
+
+    /**
+     * Creates a backend which caches the configuration of {@code backend} in a hidden sidecar file
+     * next to the file of {@code backend} {@link AbstractIOBackend#getIo() io}.
+     *
+     * @param backend Text backend backed by a file.
+     * @throws IllegalArgumentException If {@code backend} is not backed by a file.
+     */
+    public BinaryCacheBackend(AbstractIOBackend backend) {
+        this(backend, BinaryCacheBackend.fileOf(backend), BinaryCacheBackend.sidecarOf(BinaryCacheBackend.fileOf(backend)));
+    }
+
+    private static Path fileOf(AbstractIOBackend backend) {
+        return backend.getIo().getPath()
+                .orElseThrow(() -> new IllegalArgumentException("Backend '" + backend + "' is not backed by a file."));
+    }
+
+    private static Path sidecarOf(Path file) {
+        return file.resolveSibling("." + file.getFileName() + ".bin");
+    }
+
+    @Override
+    public Map<Object, Object> load() {
+        try {
+            Stamp stamp = Stamp.of(this.file);
+            Map<Object, Object> cached = this.loadSidecar(stamp);
+
+            if (cached != null)
+                return cached;
+
+            Map<Object, Object> map = this.backend.load();
+            this.saveSidecar(stamp, map);
+            return map;
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    @Override
+    public void save(Map<Object, Object> map) {
+        this.backend.save(map);
+
+        try {
+            this.saveSidecar(Stamp.of(this.file), map);
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    /**
+     * Loads the sidecar if it was created from the text file identified by {@code stamp}.
+     *
+     * @param stamp Stamp of text file.
+     * @return Cached configuration, or {@code null} if sidecar is missing or stale.
+     */
+    private Map<Object, Object> loadSidecar(Stamp stamp) {
+        ByteBuffer buffer;
+
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(this.sidecar));
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (buffer.remaining() < Stamp.BYTES || !stamp.equals(Stamp.read(buffer)))
+            return null;
+
+        try {
+            TreeBuilder builder = new TreeBuilder(StorageMode.DEFAULT);
+            BinaryFormat.read(buffer, builder);
+            return builder.getRoot();
+        } catch (IOException | RuntimeException e) {
+            // Corrupted sidecar, parse the text file instead.
+            return null;
+        }
+    }
+
+    private void saveSidecar(Stamp stamp, Map<Object, Object> map) {
+        try {
+            // Sidecar is rebuilt from the source document if lost, so it is not forced to the device.
+            BinaryBackend.write(this.sidecar, stamp.toBytes(), TreeSource.of(map), false);
+        } catch (IOException | UnsupportedValueTypeException e) {
+            try {
+                Files.deleteIfExists(this.sidecar);
+            } catch (IOException ignored) {
+                // The stamp of a stale sidecar does not match, so it is not loaded anyway.
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(TypeInfo<?> type) {
+        return this.backend.supports(type);
+    }
+
+    @Override
+    public void registerSerializers(Serializers serializers) {
+        this.backend.registerSerializers(serializers);
+    }
+
+    @Override
+    public void setMetrics(ConfigMetrics metrics) {
+        this.backend.setMetrics(metrics);
+    }
+
+    @Override
+    public Key<?> resolveRoot(Key<?> defaultRootKey) {
+        return this.backend.resolveRoot(defaultRootKey);
+    }
+
+    /**
+     * Gets the text backend.
+     *
+     * @return Text backend.
+     */
+    public Backend getBackend() {
+        return this.backend;
+    }
+
+    /**
+     * Gets the path of binary sidecar file.
+     *
+     * @return Path of binary sidecar file.
+     */
+    public Path getSidecar() {
+        return this.sidecar;
+    }
+
+    /**
+     * Size, modification time and hash of a text file.
+     */
+    private static final class Stamp {
+        private static final int BYTES = 3 * Long.BYTES;
+
+        private final long size;
+        private final long modified;
+        private final long hash;
+
+        private Stamp(long size, long modified, long hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+        static Stamp of(Path file) throws IOException {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            byte[] bytes = Files.readAllBytes(file);
+            CRC32C crc = new CRC32C();
+            crc.update(bytes);
+            return new Stamp(bytes.length, modified, crc.getValue());
+        }
+
+        static Stamp read(ByteBuffer buffer) {
+            return new Stamp(buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+
+        byte[] toBytes() {
+            return ByteBuffer.allocate(BYTES).putLong(this.size).putLong(this.modified).putLong(this.hash).array();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Stamp))
+                return false;
+
+            Stamp other = (Stamp) obj;
+            return this.size == other.size && this.modified == other.modified && this.hash == other.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.hash);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ *      Config-Binary - Binary backend for Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend.binary;
+
+import com.github.jonathanxd.config.UnsupportedValueTypeException;
+import com.github.jonathanxd.config.backend.TreeHandler;
+import com.github.jonathanxd.config.backend.TreeSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact tagged binary format of configuration trees.
+ *
+ * A document starts with the {@link #MAGIC magic bytes} and the format {@link #VERSION version},
+ * followed by the root map. Every value starts with a tag byte:
+ *
+ * <ul>
+ * <li>{@link #NULL}, {@link #FALSE} and {@link #TRUE} have no payload.</li>
+ * <li>{@link #BYTE} is followed by the byte, {@link #FLOAT} and {@link #DOUBLE} by their IEEE 754
+ * bits in big-endian order.</li>
+ * <li>{@link #SHORT}, {@link #INT} and {@link #LONG} are followed by a zigzag encoded varint, and
+ * {@link #CHAR} by a varint.</li>
+ * <li>{@link #STRING} is followed by the varint length in bytes and the UTF-8 bytes of the string,
+ * which is added to the string table. {@link #STRING_REF} is followed by the varint index of a
+ * string of the string table, so repeated keys and values are only written once.</li>
+ * <li>{@link #MAP} is followed by pairs of key and value, and {@link #LIST} by its elements, both
+ * terminated by {@link #END}.</li>
+ * </ul>
+ *
+ * Maps and lists may be nested up to {@link #MAX_DEPTH} levels, deeper trees are not written and
+ * deeper documents are rejected as malformed.
+ */
+public final class BinaryFormat {
+
+    public static final byte[] MAGIC = {'C', 'F', 'G', 'B'};
+    public static final byte VERSION = 1;
+
+    public static final byte NULL = 0;
+    public static final byte FALSE = 1;
+    public static final byte TRUE = 2;
+    public static final byte BYTE = 3;
+    public static final byte SHORT = 4;
+    public static final byte CHAR = 5;
+    public static final byte INT = 6;
+    public static final byte LONG = 7;
+    public static final byte FLOAT = 8;
+    public static final byte DOUBLE = 9;
+    public static final byte STRING = 10;
+    public static final byte STRING_REF = 11;
+    public static final byte MAP = 12;
+    public static final byte LIST = 13;
+    public static final byte END = 14;
+
+    /**
+     * Maximum nesting depth of maps and lists, including the root map.
+     */
+    public static final int MAX_DEPTH = 512;
+
+    private BinaryFormat() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Writes the tree of {@code source} to {@code out}.
+     *
+     * @param source Source of configuration tree.
+     * @param out    Output stream to write document (should be buffered).
+     * @throws IOException                   If document could not be written.
+     * @throws UnsupportedValueTypeException If tree has a value which cannot be represented, or is
+     *                                       nested deeper than {@link #MAX_DEPTH}.
+     */
+    public static void write(TreeSource source, OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+
+        try {
+            source.accept(new Encoder(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads the document of {@code buffer}, reporting it to {@code handler}.
+     *
+     * @param buffer  Buffer of document.
+     * @param handler Handler of document events.
+     * @throws IOException If the document is malformed or is nested deeper than {@link
+     *                     #MAX_DEPTH}.
+     */
+    public static void read(ByteBuffer buffer, TreeHandler handler) throws IOException {
+        try {
+            for (byte b : MAGIC) {
+                if (buffer.get() != b)
+                    throw new IOException("Not a binary configuration document.");
+            }
+
+            byte version = buffer.get();
+
+            if (version != VERSION)
+                throw new IOException("Unsupported binary configuration version: " + version);
+
+            Decoder decoder = new Decoder(buffer, handler);
+
+            if (buffer.get() != MAP)
+                throw new IOException("Expected a map as root of document.");
+
+            decoder.readMap();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of document.", e);
+        }
+    }
+
+    /**
+     * Writes tree events in binary format.
+     */
+    private static final class Encoder implements TreeHandler {
+
+        private final OutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final byte[] scratch = new byte[10];
+        private int depth;
+
+        private Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void startMap() {
+            this.enter();
+            this.write(MAP);
+        }
+
+        @Override
+        public void key(Object key) {
+            this.value(key);
+        }
+
+        @Override
+        public void endMap() {
+            this.write(END);
+            this.depth--;
+        }
+
+        @Override
+        public void startList() {
+            this.enter();
+            this.write(LIST);
+        }
+
+        @Override
+        public void endList() {
+            this.write(END);
+            this.depth--;
+        }
+
+        private void enter() {
+            // Written documents must be readable by the decoder.
+            if (++this.depth > MAX_DEPTH)
+                throw new UnsupportedValueTypeException("Tree is nested deeper than " + MAX_DEPTH + " levels.");
+        }
+
+        @Override
+        public void value(Object value) {
+            try {
+                if (value == null) {
+                    this.out.write(NULL);
+                } else if (value instanceof String) {
+                    this.writeString((String) value);
+                } else if (value instanceof Boolean) {
+                    this.out.write((Boolean) value ? TRUE : FALSE);
+                } else if (value instanceof Integer) {
+                    this.out.write(INT);
+                    this.writeVarint(zigzag((Integer) value));
+                } else if (value instanceof Long) {
+                    this.out.write(LONG);
+                    this.writeVarint(zigzag((Long) value));
+                } else if (value instanceof Double) {
+                    this.out.write(DOUBLE);
+                    this.writeFixed(Double.doubleToRawLongBits((Double) value), 8);
+                } else if (value instanceof Float) {
+                    this.out.write(FLOAT);
+                    this.writeFixed(Float.floatToRawIntBits((Float) value), 4);
+                } else if (value instanceof Byte) {
+                    this.out.write(BYTE);
+                    this.out.write((Byte) value);
+                } else if (value instanceof Short) {
+                    this.out.write(SHORT);
+                    this.writeVarint(zigzag((Short) value));
+                } else if (value instanceof Character) {
+                    this.out.write(CHAR);
+                    this.writeVarint((Character) value);
+                } else {
+                    throw new UnsupportedValueTypeException("Value of type '" + value.getClass().getCanonicalName()
+                            + "' cannot be written in binary format.");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer index = this.strings.get(value);
+
+            if (index != null) {
+                this.out.write(STRING_REF);
+                this.writeVarint(index);
+                return;
+            }
+
+            this.strings.put(value, this.strings.size());
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            this.out.write(STRING);
+            this.writeVarint(bytes.length);
+            this.out.write(bytes);
+        }
+
+        private void writeVarint(long value) throws IOException {
+            int length = 0;
+
+            while ((value & ~0x7FL) != 0) {
+                this.scratch[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            this.scratch[length++] = (byte) value;
+            this.out.write(this.scratch, 0, length);
+        }
+
+        private void writeFixed(long value, int bytes) throws IOException {
+            for (int i = bytes - 1; i >= 0; --i) {
+                this.scratch[bytes - 1 - i] = (byte) (value >>> (i * 8));
+            }
+
+            this.out.write(this.scratch, 0, bytes);
+        }
+
+        private void write(byte tag) {
+            try {
+                this.out.write(tag);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Reads a binary document, reporting its events.
+     */
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final TreeHandler handler;
+        private final List<String> strings = new ArrayList<>();
+        private int depth;
+
+        private Decoder(ByteBuffer buffer, TreeHandler handler) {
+            this.buffer = buffer;
+            this.handler = handler;
+        }
+
+        private void readMap() throws IOException {
+            this.enter();
+            this.handler.startMap();
+
+            byte tag;
+
+            while ((tag = this.buffer.get()) != END) {
+                this.handler.key(this.readScalar(tag));
+                this.readValue(this.buffer.get());
+            }
+
+            this.handler.endMap();
+            this.depth--;
+        }
+
+        private void readList() throws IOException {
+            this.enter();
+            this.handler.startList();
+
+            byte tag;
+
+            while ((tag = this.buffer.get()) != END) {
+                this.readValue(tag);
+            }
+
+            this.handler.endList();
+            this.depth--;
+        }
+
+        private void enter() throws IOException {
+            if (++this.depth > MAX_DEPTH)
+                throw new IOException("Document is nested deeper than " + MAX_DEPTH + " levels.");
+        }
+
+        private void readValue(byte tag) throws IOException {
+            if (tag == MAP)
+                this.readMap();
+            else if (tag == LIST)
+                this.readList();
+            else
+                this.handler.value(this.readScalar(tag));
+        }
+
+        private Object readScalar(byte tag) throws IOException {
+            switch (tag) {
+                case NULL:
+                    return null;
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case BYTE:
+                    return this.buffer.get();
+                case SHORT:
+                    return (short) unzigzag(this.readVarint());
+                case CHAR:
+                    return (char) this.readVarint();
+                case INT:
+                    return (int) unzigzag(this.readVarint());
+                case LONG:
+                    return unzigzag(this.readVarint());
+                case FLOAT:
+                    return this.buffer.getFloat();
+                case DOUBLE:
+                    return this.buffer.getDouble();
+                case STRING:
+                    return this.readString();
+                case STRING_REF: {
+                    long index = this.readVarint();
+
+                    if (index >= this.strings.size())
+                        throw new IOException("Invalid string reference: " + index);
+
+                    return this.strings.get((int) index);
+                }
+                default:
+                    throw new IOException("Unexpected tag: " + tag);
+            }
+        }
+
+        private String readString() throws IOException {
+            long length = this.readVarint();
+
+            if (length > this.buffer.remaining())
+                throw new IOException("String length exceeds document: " + length);
+
+            int size = (int) length;
+            String value;
+
+            if (this.buffer.hasArray()) {
+                value = new String(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(), size, StandardCharsets.UTF_8);
+                this.buffer.position(this.buffer.position() + size);
+            } else {
+                byte[] bytes = new byte[size];
+                this.buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            this.strings.add(value);
+            return value;
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = this.buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0)
+                    return value;
+            }
+
+            throw new IOException("Malformed varint.");
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ *      Config-Binary - Binary backend for Config <https://github.com/JonathanxD/Config/>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend.binary.test;
+
+import com.github.jonathanxd.config.Config;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.StorageMode;
+import com.github.jonathanxd.config.UnsupportedValueTypeException;
+import com.github.jonathanxd.config.backend.AbstractIOBackend;
+import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.TreeBuilder;
+import com.github.jonathanxd.config.backend.binary.BinaryBackend;
+import com.github.jonathanxd.config.backend.binary.BinaryCacheBackend;
+import com.github.jonathanxd.config.backend.binary.BinaryFormat;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BinaryBackendTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.bin");
+
+        try {
+            Map<Object, Object> section = new LinkedHashMap<>();
+            section.put("name", "section");
+            section.put("nothing", null);
+
+            List<Object> list = new ArrayList<>();
+            list.add(section);
+            list.add("name");
+            list.add(Arrays.asList(1, 2, 3));
+
+            Map<Object, Object> map = new LinkedHashMap<>();
+            map.put("name", "Binary ✓");
+            map.put("boolean", true);
+            map.put("byte", (byte) -7);
+            map.put("short", (short) -300);
+            map.put("char", 'é');
+            map.put("int", Integer.MIN_VALUE);
+            map.put("long", Long.MAX_VALUE);
+            map.put("float", 1.5f);
+            map.put("double", -0.25);
+            map.put("section", section);
+            map.put("list", list);
+
+            BinaryBackend backend = new BinaryBackend(file);
+            backend.save(map);
+
+            Assert.assertEquals(map, backend.load());
+            Assert.assertEquals((byte) -7, backend.load().get("byte"));
+
+            byte[] bytes = Files.readAllBytes(file);
+            Assert.assertArrayEquals(BinaryFormat.MAGIC, Arrays.copyOf(bytes, BinaryFormat.MAGIC.length));
+
+            // Repeated strings are written once
+            String document = new String(bytes, StandardCharsets.UTF_8);
+            Assert.assertEquals(document.indexOf("section"), document.lastIndexOf("section"));
+
+            Config config = new Config(backend);
+            config.load();
+
+            Key<String> name = config.getRootKey().getKey("section", Void.class).getKey("name", String.class);
+            Assert.assertEquals("section", name.getValue());
+
+            name.setValue("changed");
+            config.save();
+
+            Assert.assertEquals("changed", ((Map<?, ?>) backend.load().get("section")).get("name"));
+        } finally {
+            BinaryBackendTest.delete(dir);
+        }
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.txt");
+
+        try {
+            Files.write(file, "a=1\nb=2\n".getBytes(StandardCharsets.UTF_8));
+
+            LinesBackend lines = new LinesBackend(ConfigIO.atomicPath(file, StandardCharsets.UTF_8));
+            BinaryCacheBackend backend = new BinaryCacheBackend(lines);
+
+            Config config = new Config(backend);
+            config.load();
+
+            Assert.assertEquals(1, lines.loads);
+            Assert.assertTrue(Files.exists(backend.getSidecar()));
+
+            config.load();
+
+            Assert.assertEquals(1, lines.loads);
+            Assert.assertEquals("2", config.getRootKey().getKey("b", String.class).getValue());
+
+            Files.write(file, "a=1\nb=3\n".getBytes(StandardCharsets.UTF_8));
+            config.load();
+
+            Assert.assertEquals(2, lines.loads);
+            Assert.assertEquals("3", config.getRootKey().getKey("b", String.class).getValue());
+
+            config.getRootKey().getKey("c", String.class).setValue("4");
+            config.save();
+            config.load();
+
+            Assert.assertEquals(2, lines.loads);
+            Assert.assertEquals("4", config.getRootKey().getKey("c", String.class).getValue());
+
+            // Corrupted sidecar is ignored
+            Files.write(backend.getSidecar(), new byte[]{1, 2, 3});
+            config.load();
+
+            Assert.assertEquals(3, lines.loads);
+            Assert.assertEquals("4", config.getRootKey().getKey("c", String.class).getValue());
+        } finally {
+            BinaryBackendTest.delete(dir);
+        }
+    }
+
+    @Test
+    public void testNestingLimit() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFormat.MAGIC.length + 5 + BinaryFormat.MAX_DEPTH);
+        buffer.put(BinaryFormat.MAGIC).put(BinaryFormat.VERSION).put(BinaryFormat.MAP);
+        // Key 'a' of root map followed by nested lists
+        buffer.put(BinaryFormat.STRING).put((byte) 1).put((byte) 'a');
+
+        while (buffer.hasRemaining()) {
+            buffer.put(BinaryFormat.LIST);
+        }
+
+        buffer.flip();
+
+        try {
+            BinaryFormat.read(buffer, new TreeBuilder(StorageMode.DEFAULT));
+            Assert.fail("Document nested deeper than the limit must be rejected");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains(String.valueOf(BinaryFormat.MAX_DEPTH)));
+        }
+    }
+
+    @Test
+    public void testWriteNestingLimit() throws IOException {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.bin");
+
+        try {
+            BinaryBackend backend = new BinaryBackend(file);
+
+            // Root map and MAX_DEPTH - 1 nested lists
+            backend.save(BinaryBackendTest.nested(BinaryFormat.MAX_DEPTH - 1));
+            Assert.assertEquals(BinaryBackendTest.nested(BinaryFormat.MAX_DEPTH - 1), backend.load());
+
+            Files.delete(file);
+
+            try {
+                backend.save(BinaryBackendTest.nested(BinaryFormat.MAX_DEPTH));
+                Assert.fail("Tree nested deeper than the limit must not be written");
+            } catch (UnsupportedValueTypeException e) {
+                Assert.assertTrue(e.getMessage().contains(String.valueOf(BinaryFormat.MAX_DEPTH)));
+            }
+
+            try (Stream<Path> files = Files.list(dir)) {
+                Assert.assertEquals(0, files.count());
+            }
+        } finally {
+            BinaryBackendTest.delete(dir);
+        }
+    }
+
+    private static Map<Object, Object> nested(int lists) {
+        Object value = new ArrayList<>();
+
+        for (int i = 1; i < lists; ++i) {
+            List<Object> list = new ArrayList<>();
+            list.add(value);
+            value = list;
+        }
+
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put("a", value);
+        return map;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Minimal text backend of {@code key=value} lines that counts loads.
+     */
+    static class LinesBackend extends AbstractIOBackend {
+        int loads;
+
+        LinesBackend(ConfigIO io) {
+            super(io);
+        }
+
+        @Override
+        public Map<Object, Object> load(Reader reader) {
+            ++this.loads;
+            return new BufferedReader(reader).lines()
+                    .map(line -> line.split("=", 2))
+                    .collect(Collectors.toMap(entry -> entry[0], entry -> entry[1], (a, b) -> b, LinkedHashMap::new));
+        }
+
+        @Override
+        public void save(Map<Object, Object> map, Writer writer) {
+            try {
+                for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -27,24 +27,76 @@
  */
 package com.github.jonathanxd.config.backend.jackson;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.jonathanxd.config.backend.AbstractIOBackend;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.jonathanxd.config.backend.AbstractStreamingIOBackend;
 import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.LazyValue;
+import com.github.jonathanxd.config.backend.TreeHandler;
+import com.github.jonathanxd.config.backend.TreeSource;
 import com.github.jonathanxd.iutils.exception.RethrowException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
 
-public class JacksonBackend extends AbstractIOBackend {
+public class JacksonBackend extends AbstractStreamingIOBackend {
+
+    /**
+     * Deserialization features of a mapper with default configuration.
+     */
+    private static final int DEFAULT_DESERIALIZATION_FEATURES = new ObjectMapper().getDeserializationConfig().getDeserializationFeatures();
 
     private final ObjectMapper mapper;
+    private final boolean lazy;
 
 
     public JacksonBackend(ObjectMapper mapper, ConfigIO io) {
+        this(mapper, io, false);
+    }
+
+    /**
+     * Creates a Jackson backend.
+     *
+     * Documents are read token by token only if {@code mapper} is a plain {@link ObjectMapper} or
+     * {@link JsonMapper} without registered modules, mix-ins and with default deserialization
+     * features. Otherwise, values are deserialized through {@code mapper}, so its configuration
+     * applies, which is slower. Other customizations that cannot be detected (such as modules
+     * registered with {@code IGNORE_DUPLICATE_MODULE_REGISTRATIONS} disabled) are ignored.
+     *
+     * @param mapper Mapper used to create parsers and generators.
+     * @param io     IO to read and write configuration.
+     * @param lazy   Whether objects and arrays of top-level entries are only parsed when accessed.
+     *               Top-level entries are indexed on load, and the document is kept in memory until
+     *               all sections are parsed. Only supported by mappers of JSON documents.
+     * @throws IllegalArgumentException If {@code lazy} is {@code true} and {@code mapper} does not
+     *                                  parse JSON documents.
+     */
+    public JacksonBackend(ObjectMapper mapper, ConfigIO io, boolean lazy) {
         super(io);
+
+        // Sections are cut out of the document by token offsets, which assumes JSON syntax.
+        if (lazy && !JsonFactory.FORMAT_NAME_JSON.equals(mapper.getFactory().getFormatName()))
+            throw new IllegalArgumentException("Lazy loading requires a mapper of JSON documents, but mapper of '"
+                    + mapper.getFactory().getFormatName() + "' documents was provided.");
+
         this.mapper = mapper;
+        this.lazy = lazy;
     }
 
     @SuppressWarnings("unchecked")
@@ -58,14 +110,411 @@ public class JacksonBackend extends AbstractIOBackend {
 
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Renders the tree of {@code source} event by event, unless {@link #mapper} applies
+     * map-level serialization features, which are only applied by {@link
+     * ObjectMapper#writeValue(Writer, Object)}, in which case a {@link TreeSource#snapshot()
+     * snapshot} is written through the mapper.
+     *
+     * @param source Source of configuration tree.
+     * @param writer Writer to render configuration to.
+     */
+    @Override
+    public void save(TreeSource source, Writer writer) {
+        if (!this.writesEvents()) {
+            this.save(source.snapshot(), writer);
+            return;
+        }
+
+        try (JsonGenerator generator = this.mapper.writer().createGenerator(writer)) {
+            // Writer is committed by the caller.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            source.accept(new GeneratorHandler(generator));
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    /**
+     * Returns whether the tree can be written event by event, which is only equivalent to {@link
+     * ObjectMapper#writeValue(Writer, Object) writing the map} if {@link #mapper} does not sort
+     * map entries nor filter map values.
+     *
+     * @return Whether the tree can be written event by event.
+     */
+    @SuppressWarnings("deprecation")
+    private boolean writesEvents() {
+        SerializationConfig config = this.mapper.getSerializationConfig();
+        JsonInclude.Value inclusion = config.getDefaultPropertyInclusion(Map.class);
+
+        return !config.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                && config.isEnabled(SerializationFeature.WRITE_NULL_MAP_VALUES)
+                && JacksonBackend.includesAll(inclusion.getValueInclusion())
+                && JacksonBackend.includesAll(inclusion.getContentInclusion());
+    }
+
+    private static boolean includesAll(JsonInclude.Include include) {
+        return include == JsonInclude.Include.ALWAYS || include == JsonInclude.Include.USE_DEFAULTS;
+    }
+
     @Override
-    public Map<Object, Object> load(Reader reader) {
+    public void load(Reader reader, TreeHandler handler) {
         try {
+            JsonFactory factory = this.mapper.getFactory();
 
-            return (Map<Object, Object>) this.mapper.readValue(reader, Map.class);
+            if (this.lazy) {
+                char[] document = JacksonBackend.readFully(reader);
+                this.loadLazy(factory.createParser(document), document, handler);
+            } else {
+                this.load(factory.createParser(reader), handler);
+            }
         } catch (IOException e) {
             throw RethrowException.rethrow(e);
         }
     }
+
+    @Override
+    protected boolean canParseBytes(Charset charset) {
+        // Jackson byte parsers detect UTF encodings, and ASCII is a subset of UTF-8.
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    protected void load(ByteBuffer buffer, TreeHandler handler) {
+        try {
+            JsonFactory factory = this.mapper.getFactory();
+
+            if (this.lazy) {
+                // Sections outlive the buffer, which may be mapped to a file that is replaced later.
+                byte[] document = new byte[buffer.remaining()];
+                buffer.get(document);
+                this.loadLazy(factory.createParser(document), document, handler);
+            } else if (buffer.hasArray()) {
+                this.load(factory.createParser(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()), handler);
+            } else {
+                this.load(factory.createParser(new ByteBufferInputStream(buffer)), handler);
+            }
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    /**
+     * Reports the root object of the document parsed by {@code parser}.
+     *
+     * @param parser  Parser of document.
+     * @param handler Handler of document events.
+     */
+    private void load(JsonParser parser, TreeHandler handler) throws IOException {
+        try (JsonParser p = parser) {
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(p, "Expected an object as root of document.");
+
+            if (this.readsTokens())
+                this.emit(p, handler);
+            else
+                TreeSource.walk(this.mapper.readValue(p, Map.class), handler);
+        }
+    }
+
+    /**
+     * Returns whether documents can be read token by token, which is only equivalent to
+     * deserializing through {@link #mapper} if it has the default configuration.
+     *
+     * @return Whether documents can be read token by token.
+     */
+    private boolean readsTokens() {
+        ObjectMapper mapper = this.mapper;
+
+        return (mapper.getClass() == ObjectMapper.class || mapper.getClass() == JsonMapper.class)
+                && mapper.getRegisteredModuleIds().isEmpty()
+                && mapper.mixInCount() == 0
+                && mapper.getDeserializationConfig().getDeserializationFeatures() == DEFAULT_DESERIALIZATION_FEATURES;
+    }
+
+    /**
+     * Reports the value which starts at current token of {@code parser}, token by token if {@code
+     * tokens} is {@code true}, or deserialized through {@link #mapper} otherwise.
+     *
+     * @param parser  Parser positioned at first token of the value.
+     * @param handler Handler of value events.
+     * @param tokens  Whether value is read token by token.
+     */
+    private void read(JsonParser parser, TreeHandler handler, boolean tokens) throws IOException {
+        if (tokens)
+            this.emit(parser, handler);
+        else
+            TreeSource.walk(this.mapper.readValue(parser, Object.class), handler);
+    }
+
+    /**
+     * Reports the root object of {@code document}, reporting objects and arrays of its entries as
+     * {@link LazySection lazy sections}.
+     *
+     * @param parser   Parser of {@code document}.
+     * @param document Document, a {@code char[]} or a {@code byte[]}.
+     * @param handler  Handler of document events.
+     */
+    private void loadLazy(JsonParser parser, Object document, TreeHandler handler) throws IOException {
+        try (JsonParser p = parser) {
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(p, "Expected an object as root of document.");
+
+            boolean tokens = this.readsTokens();
+
+            handler.startMap();
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                handler.key(p.getCurrentName());
+
+                JsonToken token = p.nextToken();
+
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    int start = JacksonBackend.tokenOffset(p, document);
+                    p.skipChildren();
+                    int end = JacksonBackend.tokenOffset(p, document) + 1;
+                    handler.value(new LazySection(document, start, end));
+                } else {
+                    this.read(p, handler, tokens);
+                }
+            }
+
+            if (p.currentToken() != JsonToken.END_OBJECT)
+                throw new JsonParseException(p, "Unexpected end of document.");
+
+            handler.endMap();
+        }
+    }
+
+    /**
+     * Gets the offset of current token of {@code parser} in {@code document}.
+     *
+     * @param parser   Parser of {@code document}.
+     * @param document Document, a {@code char[]} or a {@code byte[]}.
+     * @return Offset of current token of {@code parser} in {@code document}.
+     */
+    private static int tokenOffset(JsonParser parser, Object document) {
+        JsonLocation location = parser.getTokenLocation();
+        return (int) (document instanceof byte[] ? location.getByteOffset() : location.getCharOffset());
+    }
+
+    /**
+     * Reports the value which starts at current token of {@code parser} token by token, the same
+     * way a mapper with default configuration would deserialize it.
+     *
+     * @param parser  Parser positioned at first token of the value.
+     * @param handler Handler of value events.
+     */
+    private void emit(JsonParser parser, TreeHandler handler) throws IOException {
+        int depth = 0;
+
+        do {
+            JsonToken token = parser.currentToken();
+
+            switch (token) {
+                case START_OBJECT:
+                    handler.startMap();
+                    ++depth;
+                    break;
+                case END_OBJECT:
+                    handler.endMap();
+                    --depth;
+                    break;
+                case START_ARRAY:
+                    handler.startList();
+                    ++depth;
+                    break;
+                case END_ARRAY:
+                    handler.endList();
+                    --depth;
+                    break;
+                case FIELD_NAME:
+                    handler.key(parser.getCurrentName());
+                    break;
+                case VALUE_STRING:
+                    handler.value(parser.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                    handler.value(parser.getNumberValue());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    handler.value(parser.getDoubleValue());
+                    break;
+                case VALUE_TRUE:
+                    handler.value(Boolean.TRUE);
+                    break;
+                case VALUE_FALSE:
+                    handler.value(Boolean.FALSE);
+                    break;
+                case VALUE_NULL:
+                    handler.value(null);
+                    break;
+                case VALUE_EMBEDDED_OBJECT:
+                    handler.value(parser.getEmbeddedObject());
+                    break;
+                default:
+                    throw new JsonParseException(parser, "Unexpected token: " + token);
+            }
+        } while (depth > 0 && parser.nextToken() != null);
+
+        if (depth > 0)
+            throw new JsonParseException(parser, "Unexpected end of document.");
+    }
+
+    /**
+     * Reads all characters of {@code reader}.
+     *
+     * @param reader Reader.
+     * @return All characters of {@code reader}.
+     */
+    private static char[] readFully(Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        int length = 0;
+        int read;
+
+        while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Section of a document which is parsed on first access.
+     */
+    private final class LazySection implements LazyValue {
+
+        private final Object document;
+        private final int start;
+        private final int end;
+
+        private LazySection(Object document, int start, int end) {
+            this.document = document;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void load(TreeHandler handler) {
+            JsonFactory factory = JacksonBackend.this.mapper.getFactory();
+
+            try (JsonParser parser = this.document instanceof byte[]
+                    ? factory.createParser((byte[]) this.document, this.start, this.end - this.start)
+                    : factory.createParser((char[]) this.document, this.start, this.end - this.start)) {
+                parser.nextToken();
+                JacksonBackend.this.read(parser, handler, JacksonBackend.this.readsTokens());
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LazySection[length=" + (this.end - this.start) + "]";
+        }
+    }
+
+    /**
+     * Input stream which reads the remaining bytes of a buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0)
+                return 0;
+
+            if (!this.buffer.hasRemaining())
+                return -1;
+
+            int read = Math.min(len, this.buffer.remaining());
+            this.buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+
+    /**
+     * Writes tree events to a {@link JsonGenerator}.
+     */
+    private static final class GeneratorHandler implements TreeHandler {
+
+        private final JsonGenerator generator;
+
+        private GeneratorHandler(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void startMap() {
+            try {
+                this.generator.writeStartObject();
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public void key(Object key) {
+            try {
+                this.generator.writeFieldName(String.valueOf(key));
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public void endMap() {
+            try {
+                this.generator.writeEndObject();
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public void startList() {
+            try {
+                this.generator.writeStartArray();
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public void endList() {
+            try {
+                this.generator.writeEndArray();
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public void value(Object value) {
+            try {
+                this.generator.writeObject(value);
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+    }
 }
@@ -27,11 +27,21 @@
  */
 package com.github.jonathanxd.config.backend.jackson.test;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.std.UntypedObjectDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.github.jonathanxd.config.Config;
 import com.github.jonathanxd.config.Key;
 import com.github.jonathanxd.config.Storage;
 import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.LazyValue;
 import com.github.jonathanxd.config.backend.jackson.JacksonBackend;
 import com.github.jonathanxd.config.serialize.Serializer;
 import com.github.jonathanxd.config.serialize.Serializers;
@@ -41,10 +51,92 @@ import com.github.jonathanxd.iutils.type.TypeInfo;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Objects;
 
 public class JacksonBackendTest {
 
+    @Test
+    public void testLazy() {
+        IMutableBox<String> box = new MutableBox<>();
+        box.set("{\"name\": \"Lazy\", \"flags\": {\"a\": true, \"b\": [1, 2, {\"c\": \"}]\"}]}, \"list\": [1, 2]}");
+
+        Config config = new Config(new JacksonBackend(new ObjectMapper(), ConfigIO.stringBox(box), true));
+        config.load();
+
+        // Root key resolves all sections, so the tree is inspected directly
+        Map<?, ?> root = rawRoot(config);
+
+        Assert.assertTrue(root.get("flags") instanceof LazyValue);
+        Assert.assertTrue(root.get("list") instanceof LazyValue);
+
+        Key<Void> flags = config.getRootKey().getKey("flags", Void.class);
+
+        Assert.assertEquals("Lazy", config.getRootKey().getKey("name", String.class).getValue());
+        Assert.assertEquals(Boolean.TRUE, flags.getKey("a", Boolean.class).getValue());
+
+        // Only the accessed section is parsed
+        Assert.assertFalse(root.get("flags") instanceof LazyValue);
+        Assert.assertTrue(root.get("list") instanceof LazyValue);
+
+        flags.getKey("a", Boolean.class).setValue(false);
+        config.save();
+
+        Assert.assertEquals("{\"name\":\"Lazy\",\"flags\":{\"a\":false,\"b\":[1,2,{\"c\":\"}]\"}]},\"list\":[1,2]}", box.get());
+    }
+
+    @Test
+    public void testConfiguredMapper() {
+        IMutableBox<String> box = new MutableBox<>();
+        box.set("{\"name\": \"Mapper\", \"section\": {\"value\": \"nested\"}, \"ratio\": 0.5}");
+
+        // Untyped values are deserialized by the module instead of token by token
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Object.class, new UntypedObjectDeserializer(null, null) {
+            @Override
+            public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+                if (p.currentToken() == JsonToken.VALUE_STRING)
+                    return "custom:" + p.getText();
+
+                return super.deserialize(p, ctxt);
+            }
+        });
+
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(module)
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+        for (boolean lazy : new boolean[]{false, true}) {
+            Config config = new Config(new JacksonBackend(mapper, ConfigIO.stringBox(box), lazy));
+            config.load();
+
+            Key<?> root = config.getRootKey();
+
+            Assert.assertEquals("custom:Mapper", root.getKey("name", String.class).getValue());
+            Assert.assertEquals("custom:nested", root.getKeySection("section").getKey("value", String.class).getValue());
+            Assert.assertEquals(new BigDecimal("0.5"), ((Map<?, ?>) root.getValue()).get("ratio"));
+        }
+    }
+
+    @Test
+    public void testMapFeatures() {
+        IMutableBox<String> box = new MutableBox<>();
+        box.set("{\"name\": \"Features\", \"section\": {\"b\": 2, \"a\": 1, \"none\": null}}");
+
+        ObjectMapper mapper = new ObjectMapper()
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+        Config config = new Config(new JacksonBackend(mapper, ConfigIO.stringBox(box)));
+        config.load();
+        config.save();
+
+        Assert.assertEquals("{\"name\":\"Features\",\"section\":{\"a\":1,\"b\":2}}", box.get());
+    }
+
     @Test
     public void testToString() {
         IMutableBox<String> box = new MutableBox<>();
@@ -156,4 +248,25 @@ public class JacksonBackendTest {
         }
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testLazyRequiresJson() {
+        JsonFactory factory = new JsonFactory() {
+            @Override
+            public String getFormatName() {
+                return "YAML";
+            }
+        };
+
+        new JacksonBackend(new ObjectMapper(factory), ConfigIO.stringBox(new MutableBox<>()), true);
+    }
+
+    private static Map<?, ?> rawRoot(Config config) {
+        try {
+            Field map = Config.class.getDeclaredField("map");
+            map.setAccessible(true);
+            return (Map<?, ?>) map.get(config);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
@@ -27,30 +27,48 @@
  */
 package com.github.jonathanxd.config.backend.json;
 
-import com.github.jonathanxd.config.backend.AbstractIOBackend;
+import com.github.jonathanxd.config.backend.AbstractStreamingIOBackend;
 import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.LazyValue;
+import com.github.jonathanxd.config.backend.TreeHandler;
+import com.github.jonathanxd.config.backend.TreeSource;
 
 import com.github.jonathanxd.iutils.exception.RethrowException;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.ContainerFactory;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.ContentHandler;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import java.io.CharArrayReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
-public class JsonBackend extends AbstractIOBackend {
+public class JsonBackend extends AbstractStreamingIOBackend {
 
     private final JSONParser parser;
+    private final boolean lazy;
 
     public JsonBackend(JSONParser parser, ConfigIO io) {
+        this(parser, io, false);
+    }
+
+    /**
+     * Creates a json backend.
+     *
+     * @param parser Parser of json documents.
+     * @param io     IO to read and write configuration.
+     * @param lazy   Whether objects and arrays of top-level entries are only parsed when accessed.
+     *               Top-level entries are indexed on load, and the document is kept in memory until
+     *               all sections are parsed.
+     */
+    public JsonBackend(JSONParser parser, ConfigIO io, boolean lazy) {
         super(io);
         this.parser = parser;
+        this.lazy = lazy;
     }
 
     @SuppressWarnings("unchecked")
@@ -66,29 +84,322 @@ public class JsonBackend extends AbstractIOBackend {
 
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Map<Object, Object> load(Reader reader) {
+    public void save(TreeSource source, Writer writer) {
+        source.accept(new WriterHandler(writer));
+    }
+
+    @Override
+    public void load(Reader reader, TreeHandler handler) {
         try {
-            return (Map<Object, Object>) parser.parse(reader, new MapContainerFactory());
+            if (this.lazy) {
+                char[] document = JsonBackend.readFully(reader);
+                this.parser.parse(new CharArrayReader(document), new IndexContentHandler(this.parser, document, handler));
+            } else {
+                this.parser.parse(reader, new TreeContentHandler(handler));
+            }
         } catch (IOException | ParseException e) {
             throw RethrowException.rethrow(e);
         }
     }
 
-    private static final class MapContainerFactory implements ContainerFactory {
+    /**
+     * Reads all characters of {@code reader}.
+     *
+     * @param reader Reader.
+     * @return All characters of {@code reader}.
+     */
+    private static char[] readFully(Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        int length = 0;
+        int read;
+
+        while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Reports the root object of a document to a {@link TreeHandler}, reporting objects and arrays
+     * of its entries as {@link LazySection lazy sections}. Events of nested values are only used to
+     * find where the sections end.
+     */
+    private static final class IndexContentHandler implements ContentHandler {
+
+        private final JSONParser parser;
+        private final char[] document;
+        private final TreeHandler handler;
+        private int depth;
+        private int start;
+
+        private IndexContentHandler(JSONParser parser, char[] document, TreeHandler handler) {
+            this.parser = parser;
+            this.document = document;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            if (this.depth == 0)
+                this.handler.startMap();
+
+            this.open();
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            if (this.depth == 1)
+                this.handler.endMap();
+
+            this.close();
+            return true;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            if (this.depth == 1)
+                this.handler.key(key);
 
-        private MapContainerFactory() {
+            return true;
         }
 
         @Override
-        public Map createObjectContainer() {
-            return new HashMap();
+        public boolean endObjectEntry() {
+            return true;
         }
 
         @Override
-        public List creatArrayContainer() {
-            return new ArrayList();
+        public boolean startArray() {
+            if (this.depth == 0)
+                this.handler.startList();
+
+            this.open();
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            if (this.depth == 1)
+                this.handler.endList();
+
+            this.close();
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+            if (this.depth <= 1)
+                this.handler.value(value);
+
+            return true;
+        }
+
+        private void open() {
+            ++this.depth;
+
+            // Position of the token which opens the section
+            if (this.depth == 2)
+                this.start = this.parser.getPosition();
+        }
+
+        private void close() {
+            // Position of the token which closes the section
+            if (this.depth == 2)
+                this.handler.value(new LazySection(this.document, this.start, this.parser.getPosition() + 1));
+
+            --this.depth;
+        }
+    }
+
+    /**
+     * Section of a document which is parsed on first access.
+     */
+    private static final class LazySection implements LazyValue {
+
+        private final char[] document;
+        private final int start;
+        private final int end;
+
+        private LazySection(char[] document, int start, int end) {
+            this.document = document;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void load(TreeHandler handler) {
+            try {
+                // Parsers are not thread-safe and sections may be parsed by any thread.
+                new JSONParser().parse(new CharArrayReader(this.document, this.start, this.end - this.start),
+                        new TreeContentHandler(handler));
+            } catch (IOException | ParseException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LazySection[length=" + (this.end - this.start) + "]";
+        }
+    }
+
+    /**
+     * Reports json-simple content events to a {@link TreeHandler}.
+     */
+    private static final class TreeContentHandler implements ContentHandler {
+
+        private final TreeHandler handler;
+
+        private TreeContentHandler(TreeHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            this.handler.startMap();
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            this.handler.endMap();
+            return true;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            this.handler.key(key);
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            this.handler.startList();
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            this.handler.endList();
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+            this.handler.value(value);
+            return true;
+        }
+    }
+
+    /**
+     * Writes tree events as compact json, in the same format of {@link
+     * JSONObject#writeJSONString(Writer)}.
+     */
+    private static final class WriterHandler implements TreeHandler {
+
+        private final Writer writer;
+
+        /**
+         * Whether the next map entry or list element is the first of its container.
+         */
+        private boolean first = true;
+
+        private WriterHandler(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startMap() {
+            this.element();
+            this.write("{");
+            this.first = true;
+        }
+
+        @Override
+        public void key(Object key) {
+            this.separator();
+            this.write("\"");
+            this.write(JSONValue.escape(String.valueOf(key)));
+            this.write("\":");
+            // Value of the entry must not be preceded by a separator.
+            this.first = true;
+        }
+
+        @Override
+        public void endMap() {
+            this.write("}");
+            this.first = false;
+        }
+
+        @Override
+        public void startList() {
+            this.element();
+            this.write("[");
+            this.first = true;
+        }
+
+        @Override
+        public void endList() {
+            this.write("]");
+            this.first = false;
+        }
+
+        @Override
+        public void value(Object value) {
+            this.element();
+
+            try {
+                JSONValue.writeJSONString(value, this.writer);
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
+
+            this.first = false;
+        }
+
+        private void element() {
+            this.separator();
+            this.first = false;
+        }
+
+        private void separator() {
+            if (!this.first)
+                this.write(",");
+        }
+
+        private void write(String s) {
+            try {
+                this.writer.write(s);
+            } catch (IOException e) {
+                throw RethrowException.rethrow(e);
+            }
         }
     }
 }
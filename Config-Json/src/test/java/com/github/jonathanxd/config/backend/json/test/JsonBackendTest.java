@@ -30,6 +30,7 @@ package com.github.jonathanxd.config.backend.json.test;
 import com.github.jonathanxd.config.Config;
 import com.github.jonathanxd.config.Key;
 import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.LazyValue;
 import com.github.jonathanxd.config.backend.json.JsonBackend;
 import com.github.jonathanxd.iutils.box.IMutableBox;
 import com.github.jonathanxd.iutils.box.MutableBox;
@@ -39,10 +40,41 @@ import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.lang.reflect.Field;
+import java.util.Map;
 import java.util.Objects;
 
 public class JsonBackendTest {
 
+    @Test
+    public void testLazy() {
+        IMutableBox<String> box = new MutableBox<>();
+        box.set("{\"name\": \"Lazy\", \"flags\": {\"a\": true, \"b\": [1, 2, {\"c\": \"}]\"}]}, \"list\": [1, 2]}");
+
+        Config config = new Config(new JsonBackend(new JSONParser(), ConfigIO.stringBox(box), true));
+        config.load();
+
+        // Root key resolves all sections, so the tree is inspected directly
+        Map<?, ?> root = rawRoot(config);
+
+        Assert.assertTrue(root.get("flags") instanceof LazyValue);
+        Assert.assertTrue(root.get("list") instanceof LazyValue);
+
+        Key<Void> flags = config.getRootKey().getKey("flags", Void.class);
+
+        Assert.assertEquals("Lazy", config.getRootKey().getKey("name", String.class).getValue());
+        Assert.assertEquals(Boolean.TRUE, flags.getKey("a", Boolean.class).getValue());
+
+        // Only the accessed section is parsed
+        Assert.assertFalse(root.get("flags") instanceof LazyValue);
+        Assert.assertTrue(root.get("list") instanceof LazyValue);
+
+        flags.getKey("a", Boolean.class).setValue(false);
+        config.save();
+
+        Assert.assertEquals("{\"name\":\"Lazy\",\"flags\":{\"a\":false,\"b\":[1,2,{\"c\":\"}]\"}]},\"list\":[1,2]}", box.get());
+    }
+
     @Test
     public void testToString() {
         IMutableBox<String> box = new MutableBox<>();
@@ -76,4 +108,13 @@ public class JsonBackendTest {
         Assert.assertEquals(9, (int) b);
     }
 
+    private static Map<?, ?> rawRoot(Config config) {
+        try {
+            Field map = Config.class.getDeclaredField("map");
+            map.setAccessible(true);
+            return (Map<?, ?>) map.get(config);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
@@ -27,8 +27,9 @@
  */
 package com.github.jonathanxd.config.backend.toml;
 
-import com.github.jonathanxd.config.backend.AbstractIOBackend;
+import com.github.jonathanxd.config.backend.AbstractStreamingIOBackend;
 import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.config.backend.TreeHandler;
 import com.github.jonathanxd.iutils.exception.RethrowException;
 import org.tomlj.*;
 
@@ -38,7 +39,7 @@ import java.io.Writer;
 import java.text.ParseException;
 import java.util.*;
 
-public class TomlBackend extends AbstractIOBackend {
+public class TomlBackend extends AbstractStreamingIOBackend {
 
     public TomlBackend(ConfigIO io) {
         super(io);
@@ -54,9 +55,8 @@ public class TomlBackend extends AbstractIOBackend {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Map<Object, Object> load(Reader reader) {
+    public void load(Reader reader, TreeHandler handler) {
         try {
             TomlParseResult parse = Toml.parse(reader);
             if (parse.hasErrors()) {
@@ -67,12 +67,44 @@ public class TomlBackend extends AbstractIOBackend {
                 throw e;
             }
 
-            return deepToMap(parse);
+            emit(parse, handler);
         } catch (IOException e) {
             throw RethrowException.rethrow(e);
         }
     }
 
+    /**
+     * Reports {@code table} and all its values to {@code handler}.
+     *
+     * @param table   Table to report.
+     * @param handler Handler of table events.
+     */
+    public static void emit(TomlTable table, TreeHandler handler) {
+        handler.startMap();
+
+        for (String s : table.keySet()) {
+            handler.key(s);
+            emitValue(table.get(s), handler);
+        }
+
+        handler.endMap();
+    }
+
+    private static void emitValue(Object o, TreeHandler handler) {
+        if (o instanceof TomlArray) {
+            TomlArray tomlArray = (TomlArray) o;
+            handler.startList();
+            for (int x = 0; x < tomlArray.size(); ++x) {
+                emitValue(tomlArray.get(x), handler);
+            }
+            handler.endList();
+        } else if (o instanceof TomlTable) {
+            emit((TomlTable) o, handler);
+        } else {
+            handler.value(o);
+        }
+    }
+
     public static Object deepToObj(Object o) {
         if (o instanceof TomlArray) {
             List<Object> list = new ArrayList<>();
@@ -0,0 +1,150 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.serialize.MappingSerializer;
+import com.github.jonathanxd.config.serialize.Serializer;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binding of a configuration section to an object of type {@link R}, a record, an interface or a
+ * plain object mapped by a {@link MappingSerializer}.
+ *
+ * The section is mapped in a single pass the first time the {@link #get() object is requested},
+ * and the object is cached until a value of the section changes, through {@link
+ * Key#setValue(Object)} or {@link Config#load()}, only then the object is mapped again. Hot code
+ * can hold the binding and read the values of the object instead of calling {@link
+ * Key#getValue()} for each value.
+ *
+ * <pre>{@code
+ *      record Limits(int connections, long timeout) {}
+ *
+ *      Binding<Limits> limits = config.getRootKey().getKeySection("limits").bind(Limits.class);
+ *
+ *      int connections = limits.get().connections();
+ * }</pre>
+ *
+ * Properties of types other than primitive types and {@link String} are de-serialized through
+ * {@link com.github.jonathanxd.config.serialize.Serializers} of the {@link Config}.
+ *
+ * @param <R> Type of bound object.
+ * @see Key#bind(Class)
+ */
+public final class Binding<R> {
+
+    private final Config config;
+    private final Key<R> key;
+    private final Serializer<R> serializer;
+    private final ConfigListener.Registration registration;
+
+    /**
+     * Incremented every time the bound section changes.
+     */
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * Last mapped object.
+     */
+    private volatile Bound<R> bound;
+
+    /**
+     * Creates a binding of section of {@code key} to objects of type {@code type}.
+     *
+     * @param key  Key of section.
+     * @param type Type of bound object.
+     */
+    @SuppressWarnings("unchecked")
+    Binding(Key<?> key, Class<R> type) {
+        TypeInfo<R> typeInfo = TypeInfo.of(type);
+        Optional<Serializer<R>> serializer = key.getConfig().getSerializers().findSerializer(typeInfo);
+
+        this.config = key.getConfig();
+        this.key = key.getAs(typeInfo);
+        this.serializer = serializer.isPresent() && serializer.get() instanceof MappingSerializer<?>
+                ? serializer.get()
+                : new MappingSerializer<>(type);
+        this.registration = key.addListener(change -> this.version.incrementAndGet());
+    }
+
+    /**
+     * Gets the object mapped from the current values of the section, mapping the section again if
+     * it changed since the last call.
+     *
+     * @return Object mapped from the current values of the section, or {@code null} if the section
+     * does not exist.
+     */
+    public R get() {
+        int version = this.version.get();
+        Bound<R> bound = this.bound;
+
+        if (bound == null || bound.version != version) {
+            Storage storage = this.key.getStorage();
+
+            bound = new Bound<>(version, storage.exists(this.key)
+                    ? this.serializer.deserialize(this.key, this.key.getTypeInfo(), storage, this.config.getSerializers())
+                    : null);
+            this.bound = bound;
+        }
+
+        return bound.value;
+    }
+
+    /**
+     * Gets the key of bound section.
+     *
+     * @return Key of bound section.
+     */
+    public Key<R> getKey() {
+        return this.key;
+    }
+
+    /**
+     * Cancels this binding, the section is no longer observed and the object is no longer
+     * updated.
+     */
+    public void cancel() {
+        this.registration.cancel();
+        this.config.unbind(this);
+    }
+
+    /**
+     * Mapped object of a section version.
+     */
+    private static final class Bound<R> {
+        private final int version;
+        private final R value;
+
+        Bound(int version, R value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Key} which resolves the path to the section where the value of the {@link
+ * #getDelegate() compiled key} resides only once, subsequent value operations access the section
+ * map directly instead of walking the entire path again through nested {@link Storage storages}.
+ *
+ * The resolved path is invalidated when the configuration is {@link Config#load() loaded} or when
+ * any section of the configuration is replaced, in this case, the path is resolved again in the
+ * next operation.
+ *
+ * Only paths composed of keys created through {@link Key#getKey(String, TypeInfo)} from the {@link
+ * Config#getRootKey() root key} can be compiled, for other keys (such as emulated keys and custom
+ * key implementations), operations are delegated to the compiled key. Also, when the section does
+ * not exist yet, operations are delegated to the compiled key, which creates missing sections when
+ * a value is pushed.
+ *
+ * Example:
+ *
+ * <pre>
+ *     {@code
+ *      CompiledKey<Integer> limit = root.getKey("a", Void.TYPE)
+ *                                       .getKey("b", Void.TYPE)
+ *                                       .getKey("limit", Integer.class)
+ *                                       .compile();
+ *
+ *      int value = limit.getValue(); // single map lookup
+ *     }
+ * </pre>
+ *
+ * @param <T> Type of the key value.
+ */
+public final class CompiledKey<T> extends AbstractKey<T> {
+
+    /**
+     * Compiled key.
+     */
+    private final Key<T> delegate;
+
+    /**
+     * Names of sections from the root to the section where the value resides, or {@code null} if
+     * the key cannot be compiled.
+     */
+    private final String[] path;
+
+    /**
+     * Last resolution.
+     */
+    private volatile Resolution resolution;
+
+    /**
+     * Compiles {@code delegate}.
+     *
+     * @param delegate Key to compile.
+     */
+    CompiledKey(Key<T> delegate) {
+        super(delegate.getConfig(),
+                delegate.getParent(),
+                delegate.getName(),
+                delegate.getTypeInfo(),
+                delegate.getStorage(),
+                delegate.getOriginalKey());
+        this.delegate = delegate;
+        this.path = CompiledKey.sectionPath(delegate);
+    }
+
+    /**
+     * Gets the path of sections that contains the value of {@code key}.
+     *
+     * @param key Key to get the path.
+     * @return Path of sections that contains the value of {@code key}, or {@code null} if the path
+     * of {@code key} could not be determined.
+     */
+    private static String[] sectionPath(Key<?> key) {
+        if (key.getClass() != Key.class)
+            return null;
+
+        List<String> names = new ArrayList<>();
+        Key<?> current = key.getParent();
+
+        while (current != null && !(current instanceof Config.RootKey<?>)) {
+            if (current.getClass() != Key.class)
+                return null;
+
+            names.add(0, current.getName());
+            current = current.getParent();
+        }
+
+        if (current == null || current.getStorage() != key.getConfig())
+            return null;
+
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Gets the compiled key.
+     *
+     * @return Compiled key.
+     */
+    public Key<T> getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * Returns {@code true} if the path of the {@link #getDelegate() compiled key} could be
+     * compiled, {@code false} if all operations are delegated to the compiled key.
+     *
+     * @return {@code true} if the path of the {@link #getDelegate() compiled key} could be
+     * compiled.
+     */
+    public boolean isCompiled() {
+        return this.path != null;
+    }
+
+    /**
+     * Returns the storage of the section where the value resides, resolving the path if it was
+     * invalidated, or the {@link #getDelegate() compiled key} storage if the section does not
+     * exist.
+     *
+     * @return Storage of the section where the value resides.
+     */
+    @Override
+    public Storage getStorage() {
+        if (this.path == null)
+            return this.getDelegate().getStorage();
+
+        Config config = this.getConfig();
+        int version = config.getStructureVersion();
+        Resolution resolution = this.resolution;
+
+        if (resolution == null || resolution.version != version) {
+            resolution = new Resolution(version, this.resolve(config));
+            this.resolution = resolution;
+        }
+
+        if (resolution.storage == null)
+            return this.getDelegate().getStorage();
+
+        return resolution.storage;
+    }
+
+    /**
+     * Resolves the storage of the section where the value resides.
+     *
+     * @param config Configuration.
+     * @return Storage of the section where the value resides, or {@code null} if the section does
+     * not exist.
+     */
+    @SuppressWarnings("unchecked")
+    private Storage resolve(Config config) {
+        String[] path = this.path;
+
+        if (path.length == 0)
+            return config;
+
+        Object section = config.getMap();
+
+        for (String name : path) {
+            Map<?, ?> map = (Map<?, ?>) section;
+            section = config.resolve(map, name, map.get(name));
+
+            if (!(section instanceof Map<?, ?>))
+                return null;
+        }
+
+        return Storage.createMapStorage(config, (Map<String, Object>) section);
+    }
+
+    @Override
+    public <V> Key<V> getKey(String name, TypeInfo<V> typeInfo) {
+        return this.getDelegate().getKey(name, typeInfo);
+    }
+
+    @Override
+    public CompiledKey<T> compile() {
+        return this;
+    }
+
+    /**
+     * Resolved section storage for a structure version.
+     */
+    private static final class Resolution {
+        private final int version;
+        private final Storage storage;
+
+        Resolution(int version, Storage storage) {
+            this.version = version;
+            this.storage = storage;
+        }
+    }
+}
@@ -28,12 +28,22 @@
 package com.github.jonathanxd.config;
 
 import com.github.jonathanxd.config.backend.Backend;
+import com.github.jonathanxd.config.backend.LazyValue;
+import com.github.jonathanxd.config.backend.StreamingBackend;
+import com.github.jonathanxd.config.backend.TreeBuilder;
+import com.github.jonathanxd.config.backend.TreeSource;
 import com.github.jonathanxd.config.serialize.Serializers;
 import com.github.jonathanxd.iutils.type.TypeInfo;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Configuration front-end. Values are stored in this {@link Storage ConfigStorage}, and later saved
@@ -51,9 +61,25 @@ public class Config extends Storage {
     private static final TypeInfo<Map<Object, Object>> TYPE = TypeInfo.builderOf(Map.class).of(Object.class, Object.class).buildGeneric();
 
     /**
-     * Root map
+     * Storage mode.
      */
-    private final Map<Object, Object> map = new LinkedHashMap<>();
+    private final StorageMode storageMode;
+
+    /**
+     * Root map. Replaced as a whole when the configuration is loaded, so readers always observe
+     * either the previous tree or the new one, never a partially loaded tree.
+     */
+    private volatile Map<Object, Object> map;
+
+    /**
+     * Change listeners.
+     */
+    private final ConfigListeners listeners = new ConfigListeners(this);
+
+    /**
+     * Bindings by path and bound type.
+     */
+    private final Map<List<Object>, Binding<?>> bindings = new ConcurrentHashMap<>();
 
     /**
      * Serializers
@@ -70,6 +96,18 @@ public class Config extends Storage {
      */
     private final Backend backend;
 
+    /**
+     * Version of the structure of the configuration tree, incremented every time a section is
+     * replaced or the configuration is loaded. Used by {@link CompiledKey} to invalidate resolved
+     * paths.
+     */
+    private final AtomicInteger structureVersion = new AtomicInteger();
+
+    /**
+     * Metrics sink.
+     */
+    private volatile ConfigMetrics metrics = ConfigMetrics.NONE;
+
     /**
      * Creates a configuration backing save and load operations to a {@link Backend}.
      *
@@ -86,8 +124,35 @@ public class Config extends Storage {
      * @param serializers Serializers instance to use to manage serializers.
      */
     public Config(Backend backend, Serializers serializers) {
+        this(backend, serializers, StorageMode.DEFAULT);
+    }
+
+    /**
+     * Creates a configuration backing save and load operations to a {@link Backend}.
+     *
+     * @param backend     Backend to save and load configuration.
+     * @param storageMode Mode of the storage, specifies which containers are used to store values.
+     *                    Use {@link StorageMode#CONCURRENT} to share the configuration between
+     *                    threads.
+     */
+    public Config(Backend backend, StorageMode storageMode) {
+        this(backend, new Serializers(), storageMode);
+    }
+
+    /**
+     * Creates a configuration backing save and load operations to a {@link Backend}.
+     *
+     * @param backend     Backend to save and load configuration.
+     * @param serializers Serializers instance to use to manage serializers.
+     * @param storageMode Mode of the storage, specifies which containers are used to store values.
+     *                    Use {@link StorageMode#CONCURRENT} to share the configuration between
+     *                    threads.
+     */
+    public Config(Backend backend, Serializers serializers, StorageMode storageMode) {
         this.backend = backend;
         this.serializers = serializers;
+        this.storageMode = storageMode;
+        this.map = storageMode.newMap();
         this.getBackend().registerSerializers(this.getSerializers());
     }
 
@@ -118,19 +183,264 @@ public class Config extends Storage {
         return this.serializers;
     }
 
+    /**
+     * Gets the storage mode.
+     *
+     * @return Storage mode.
+     */
+    public StorageMode getStorageMode() {
+        return this.storageMode;
+    }
+
+    /**
+     * Gets the metrics sink.
+     *
+     * @return Metrics sink, {@link ConfigMetrics#NONE} if metrics are not being collected.
+     */
+    public ConfigMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Sets the metrics sink of this configuration, its {@link Serializers} and its {@link
+     * Backend}.
+     *
+     * @param metrics Metrics sink, {@link ConfigMetrics#NONE} to stop collecting metrics.
+     */
+    public void setMetrics(ConfigMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics");
+        this.metrics = metrics;
+        this.getSerializers().setMetrics(metrics);
+        this.getBackend().setMetrics(metrics);
+    }
+
     /**
      * Saves the configuration.
+     *
+     * {@link StreamingBackend Streaming backends} render the configuration tree while it is walked
+     * instead of rendering a copy of the tree. Each section is only locked while its entries are
+     * copied, never while the document is rendered or written.
+     *
+     * @see SaveScheduler
      */
     public void save() {
-        this.backend.save(Collections.unmodifiableMap(new LinkedHashMap<>(this.map)));
+        ConfigMetrics metrics = this.metrics;
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        Map<Object, Object> map = this.map;
+
+        if (this.backend instanceof StreamingBackend) {
+            ((StreamingBackend) this.backend).save(TreeSource.of(map, () -> this.snapshot(map)));
+        } else {
+            this.backend.save(this.snapshot(map));
+        }
+
+        if (metrics.isEnabled())
+            metrics.save(System.nanoTime() - start, Config.countEntries(map));
+    }
+
+    /**
+     * Creates an unmodifiable snapshot of {@code map} to be saved, parsing {@link LazyValue lazy
+     * values}.
+     *
+     * @param map Root map.
+     * @return Unmodifiable snapshot of {@code map}.
+     */
+    private Map<Object, Object> snapshot(Map<Object, Object> map) {
+        this.resolveAll(map);
+        return Collections.unmodifiableMap(this.getStorageMode().snapshot(map));
     }
 
     /**
      * Loads the configuration.
+     *
+     * The new configuration tree is built aside and then published at once, values read while the
+     * configuration is being loaded come from the previous tree. {@link StreamingBackend Streaming
+     * backends} report the document directly to the new tree, without materializing their own, and
+     * may report top-level sections as {@link LazyValue lazy values}, which are only parsed when
+     * accessed.
      */
     public void load() {
-        this.map.clear();
-        this.map.putAll(this.backend.load());
+        ConfigMetrics metrics = this.metrics;
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+
+        Map<Object, Object> loaded;
+
+        if (this.backend instanceof StreamingBackend) {
+            TreeBuilder builder = new TreeBuilder(this.getStorageMode(), true);
+            ((StreamingBackend) this.backend).load(builder);
+            loaded = builder.getRoot();
+        } else {
+            loaded = this.getStorageMode().newMap();
+            loaded.putAll(this.getStorageMode().adopt(this.backend.load()));
+        }
+
+        if (metrics.isEnabled())
+            metrics.load(System.nanoTime() - start, Config.countEntries(loaded));
+
+        this.swap(loaded);
+    }
+
+    /**
+     * Counts map entries and list elements of {@code value} tree.
+     *
+     * @param value Value to count entries.
+     * @return Number of map entries and list elements of {@code value} tree.
+     */
+    private static long countEntries(Object value) {
+        long count = 0;
+
+        if (value instanceof Map<?, ?>) {
+            synchronized (value) {
+                for (Object o : ((Map<?, ?>) value).values())
+                    count += 1 + Config.countEntries(o);
+            }
+        } else if (value instanceof Collection<?>) {
+            synchronized (value) {
+                for (Object o : (Collection<?>) value)
+                    count += 1 + Config.countEntries(o);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Resolves {@code value} of {@code name} in {@code map}. If {@code value} is a {@link LazyValue},
+     * it is parsed and replaced in {@code map} by the parsed value.
+     *
+     * @param map   Map where the value resides.
+     * @param name  Name of the value.
+     * @param value Value of {@code name}.
+     * @return Resolved value.
+     */
+    @SuppressWarnings("unchecked")
+    Object resolve(Map<?, ?> map, Object name, Object value) {
+        while (value instanceof LazyValue) {
+            Object resolved = TreeBuilder.build(this.getStorageMode(), (LazyValue) value);
+
+            if (((Map<Object, Object>) map).replace(name, value, resolved))
+                return resolved;
+
+            // Resolved (or replaced) by another thread
+            value = map.get(name);
+        }
+
+        return value;
+    }
+
+    /**
+     * Resolves all {@link LazyValue lazy values} of {@code map}.
+     *
+     * @param map Root map.
+     */
+    private void resolveAll(Map<Object, Object> map) {
+        List<Object> names = new ArrayList<>();
+
+        // Lazy values are parsed without holding the lock of root map
+        synchronized (map) {
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                if (entry.getValue() instanceof LazyValue)
+                    names.add(entry.getKey());
+            }
+        }
+
+        for (Object name : names) {
+            this.resolve(map, name, map.get(name));
+        }
+    }
+
+    /**
+     * Publishes {@code map} as the new root map and notifies listeners of changed values.
+     *
+     * @param map New root map.
+     */
+    private void swap(Map<Object, Object> map) {
+        Map<Object, Object> old = this.map;
+        this.map = map;
+        this.structureChanged();
+        this.listeners.treeChanged(old, map);
+    }
+
+    /**
+     * Registers a {@code listener} of changes to value of {@code key} and values of all its child
+     * keys.
+     *
+     * Listeners are notified of changes made by {@link #load()} and by {@link Key#setValue(Object)}
+     * (and other setters) of non-emulated keys, in the thread that made the change. On load, only
+     * changed paths are notified.
+     *
+     * @param key      Key to observe.
+     * @param listener Listener of changes.
+     * @return Registration of listener.
+     */
+    public ConfigListener.Registration addListener(Key<?> key, ConfigListener listener) {
+        return this.listeners.add(ConfigListeners.pathOf(key), listener);
+    }
+
+    /**
+     * Binds the section of {@code key} to objects of type {@code type}. Bindings are cached, binding
+     * the same path to the same type returns the same binding until it is {@link Binding#cancel()
+     * cancelled}.
+     *
+     * @param key  Key of section.
+     * @param type Record, interface or plain object type.
+     * @param <R>  Type of bound object.
+     * @return Binding of section of {@code key}.
+     * @throws IllegalArgumentException If {@code key} is emulated.
+     * @see Binding
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Binding<R> bind(Key<?> key, Class<R> type) {
+        if (key.isEmulated())
+            throw new IllegalArgumentException("Emulated key '" + key + "' cannot be bound.");
+
+        List<Object> id = Arrays.asList(ConfigListeners.pathOf(key), type);
+
+        return (Binding<R>) this.bindings.computeIfAbsent(id, k -> new Binding<>(key, type));
+    }
+
+    /**
+     * Removes {@code binding} from cached bindings.
+     *
+     * @param binding Cancelled binding.
+     */
+    void unbind(Binding<?> binding) {
+        this.bindings.values().remove(binding);
+    }
+
+    /**
+     * Gets the change listeners.
+     *
+     * @return Change listeners.
+     */
+    ConfigListeners getListeners() {
+        return this.listeners;
+    }
+
+    /**
+     * Gets the root map.
+     *
+     * @return Root map.
+     */
+    Map<Object, Object> getMap() {
+        return this.map;
+    }
+
+    /**
+     * Gets the current version of the structure of the configuration tree.
+     *
+     * @return Current version of the structure of the configuration tree.
+     */
+    int getStructureVersion() {
+        return this.structureVersion.get();
+    }
+
+    /**
+     * Notifies that the structure of the configuration tree has changed, invalidating all {@link
+     * CompiledKey compiled keys}.
+     */
+    void structureChanged() {
+        this.structureVersion.incrementAndGet();
     }
 
     // Storage
@@ -138,15 +448,31 @@ public class Config extends Storage {
 
     @Override
     public void pushValue(Key<?> key, Object value) {
-        this.map.put(key.getName(), value);
+        Object previous = this.map.put(key.getName(), value);
+        this.onPush(previous, value);
+    }
+
+    @Override
+    public Object pushValueIfAbsent(Key<?> key, Object value) {
+        Map<Object, Object> map = this.map;
+        Object present = map.putIfAbsent(key.getName(), value);
+
+        if (present != null)
+            return this.resolve(map, key.getName(), present);
+
+        this.onPush(null, value);
+        return value;
     }
 
     @Override
     public Object fetchValue(Key<?> key) {
-        if (!this.exists(key))
+        Map<Object, Object> map = this.map;
+        Object value = map.get(key.getName());
+
+        if (value == null && !map.containsKey(key.getName()))
             throw new KeyNotFoundException(key);
 
-        return this.map.get(key.getName());
+        return this.resolve(map, key.getName(), value);
     }
 
     @Override
@@ -191,7 +517,12 @@ public class Config extends Storage {
 
         @Override
         public <V> Key<V> getKey(String name, TypeInfo<V> typeInfo) {
-            return new Key<>(Config.this, this, name, typeInfo, this.getStorage(), null);
+            Key<V> key = this.getChild(name, typeInfo);
+
+            if (key != null)
+                return key;
+
+            return this.internChild(new Key<>(Config.this, this, name, typeInfo, this.getStorage(), null));
         }
 
         @Override
@@ -250,7 +581,9 @@ public class Config extends Storage {
         @Override
         public X getValue() {
             if (super.getTypeInfo().equals(TYPE)) {
-                return (X) Config.this.map;
+                Map<Object, Object> map = Config.this.map;
+                Config.this.resolveAll(map);
+                return (X) map;
             } else {
                 return (X) super.getStorage().get(this);
             }
@@ -260,9 +593,9 @@ public class Config extends Storage {
         @Override
         public void setValue(X value) {
             if (super.getTypeInfo().equals(TYPE)) {
-                Map<Object, Object> map = (Map<Object, Object>) this.getValue();
-                map.clear();
+                Map<Object, Object> map = Config.this.getStorageMode().newMap();
                 map.putAll((Map<?, ?>) value);
+                Config.this.swap(map);
             } else {
                 super.getStorage().store(this, value);
             }
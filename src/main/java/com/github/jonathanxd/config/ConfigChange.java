@@ -0,0 +1,116 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.iutils.string.ToStringHelper;
+
+import java.util.List;
+
+/**
+ * Change of a value of configuration tree.
+ *
+ * Values are the raw values of configuration tree (values stored by {@link Storage}, before
+ * deserialization). Changes inside of lists are reported as a change of the entire list.
+ */
+public final class ConfigChange {
+
+    private final Type type;
+    private final List<String> path;
+    private final Object oldValue;
+    private final Object newValue;
+
+    ConfigChange(Type type, List<String> path, Object oldValue, Object newValue) {
+        this.type = type;
+        this.path = path;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Gets the type of change.
+     *
+     * @return Type of change.
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the path of changed value from root, without the root key name.
+     *
+     * @return Path of changed value.
+     */
+    public List<String> getPath() {
+        return this.path;
+    }
+
+    /**
+     * Gets the value before the change, or {@code null} if value was {@link Type#ADDED added}.
+     *
+     * @return Value before the change.
+     */
+    public Object getOldValue() {
+        return this.oldValue;
+    }
+
+    /**
+     * Gets the value after the change, or {@code null} if value was {@link Type#REMOVED removed}.
+     *
+     * @return Value after the change.
+     */
+    public Object getNewValue() {
+        return this.newValue;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringHelper.defaultHelper("ConfigChange")
+                .add("type", this.getType())
+                .add("path", this.getPath())
+                .add("oldValue", this.getOldValue())
+                .add("newValue", this.getNewValue())
+                .toString();
+    }
+
+    public enum Type {
+        /**
+         * Value was not present before the change.
+         */
+        ADDED,
+
+        /**
+         * Value is not present after the change.
+         */
+        REMOVED,
+
+        /**
+         * Value was replaced by a different value.
+         */
+        MODIFIED
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listeners of a {@link Config}, organized in a tree of key names so changes are only computed
+ * for observed paths.
+ *
+ * A listener registered to a path is notified of changes to the value of the path and of changes
+ * inside of the value of the path.
+ */
+final class ConfigListeners {
+
+    /**
+     * Marks a value that is not present.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final Config config;
+    private final Node root = new Node();
+
+    /**
+     * Number of registered listeners.
+     */
+    private volatile int count;
+
+    /**
+     * Creates listeners of {@code config}.
+     *
+     * @param config Configuration, used to resolve lazy values of observed paths.
+     */
+    ConfigListeners(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Returns {@code true} if there is no listener registered.
+     *
+     * @return {@code true} if there is no listener registered.
+     */
+    boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    /**
+     * Registers {@code listener} to changes of {@code path} and its children.
+     *
+     * @param path     Path to observe.
+     * @param listener Listener.
+     * @return Registration of listener.
+     */
+    synchronized Registration add(List<String> path, ConfigListener listener) {
+        Node node = this.root;
+        node.observed++;
+
+        for (String name : path) {
+            node = node.children.computeIfAbsent(name, n -> new Node());
+            node.observed++;
+        }
+
+        Registration registration = new Registration(path, listener);
+        node.listeners.add(registration);
+        ++this.count;
+
+        return registration;
+    }
+
+    private synchronized void remove(Registration registration) {
+        List<Node> nodes = new ArrayList<>();
+        Node node = this.root;
+        nodes.add(node);
+
+        for (String name : registration.path) {
+            node = node.children.get(name);
+
+            if (node == null)
+                return;
+
+            nodes.add(node);
+        }
+
+        if (!node.listeners.remove(registration))
+            return;
+
+        --this.count;
+
+        for (int i = nodes.size() - 1; i >= 0; --i) {
+            Node current = nodes.get(i);
+            current.observed--;
+
+            if (i > 0 && current.observed == 0)
+                nodes.get(i - 1).children.remove(registration.path.get(i - 1));
+        }
+    }
+
+    /**
+     * Returns {@code true} if changes to value of {@code key} should be reported to any listener.
+     *
+     * @param key Key.
+     * @return {@code true} if changes to value of {@code key} should be reported to any listener.
+     */
+    boolean isObserved(Key<?> key) {
+        if (this.isEmpty() || key.isEmulated())
+            return false;
+
+        Node node = this.root;
+
+        for (String name : ConfigListeners.pathOf(key)) {
+            if (!node.listeners.isEmpty())
+                return true;
+
+            node = node.children.get(name);
+
+            if (node == null)
+                return false;
+        }
+
+        return node.observed > 0;
+    }
+
+    /**
+     * Runs {@code change}, which changes the value of {@code key}, and notifies listeners of
+     * changes made to the value of {@code key}.
+     *
+     * @param key    Key which value is changed.
+     * @param change Change of value.
+     */
+    void change(Key<?> key, Runnable change) {
+        Storage storage = key.getStorage();
+        Object oldValue = storage.exists(key) ? StorageMode.deepCopy(storage.fetchValue(key), StorageMode.DEFAULT) : ABSENT;
+
+        change.run();
+
+        Object newValue = storage.exists(key) ? storage.fetchValue(key) : ABSENT;
+
+        List<String> path = ConfigListeners.pathOf(key);
+        List<Registration> inherited = new ArrayList<>();
+        Node node = this.root;
+
+        for (String name : path) {
+            inherited.addAll(node.listeners);
+            node = node.children.get(name);
+
+            if (node == null)
+                break;
+        }
+
+        if (node != null)
+            inherited.addAll(node.listeners);
+
+        List<Event> events = new ArrayList<>();
+        this.compare(oldValue, newValue, node, new ArrayList<>(path), inherited, events);
+        ConfigListeners.fire(events);
+    }
+
+    /**
+     * Notifies listeners of changes between {@code oldTree} and {@code newTree}.
+     *
+     * @param oldTree Old configuration tree.
+     * @param newTree New configuration tree.
+     */
+    void treeChanged(Map<?, ?> oldTree, Map<?, ?> newTree) {
+        if (this.isEmpty())
+            return;
+
+        List<Event> events = new ArrayList<>();
+        this.diff(oldTree, newTree, this.root, new ArrayList<>(), new ArrayList<>(this.root.listeners), events);
+        ConfigListeners.fire(events);
+    }
+
+    private void compare(Object oldValue,
+                         Object newValue,
+                         Node node,
+                         List<String> path,
+                         List<Registration> inherited,
+                         List<Event> events) {
+        if (oldValue instanceof Map<?, ?> && newValue instanceof Map<?, ?>) {
+            this.diff((Map<?, ?>) oldValue, (Map<?, ?>) newValue, node, path, inherited, events);
+            return;
+        }
+
+        ConfigChange.Type type;
+
+        if (oldValue == ABSENT && newValue == ABSENT)
+            return;
+        else if (oldValue == ABSENT)
+            type = ConfigChange.Type.ADDED;
+        else if (newValue == ABSENT)
+            type = ConfigChange.Type.REMOVED;
+        else if (!Objects.equals(oldValue, newValue))
+            type = ConfigChange.Type.MODIFIED;
+        else
+            return;
+
+        List<Registration> listeners = new ArrayList<>(inherited);
+
+        if (node != null)
+            ConfigListeners.collectChildren(node, listeners);
+
+        if (listeners.isEmpty())
+            return;
+
+        ConfigChange change = new ConfigChange(type,
+                Collections.unmodifiableList(new ArrayList<>(path)),
+                oldValue == ABSENT ? null : oldValue,
+                newValue == ABSENT ? null : newValue);
+
+        for (Registration listener : listeners) {
+            events.add(new Event(listener, change));
+        }
+    }
+
+    private void diff(Map<?, ?> oldMap,
+                      Map<?, ?> newMap,
+                      Node node,
+                      List<String> path,
+                      List<Registration> inherited,
+                      List<Event> events) {
+        if (oldMap == newMap)
+            return;
+
+        Set<Object> names = new LinkedHashSet<>(oldMap.keySet());
+        names.addAll(newMap.keySet());
+
+        for (Object name : names) {
+            String childName = String.valueOf(name);
+            Node child = node == null ? null : node.children.get(childName);
+
+            // Nobody observes this subtree
+            if (child == null && inherited.isEmpty())
+                continue;
+
+            List<Registration> childInherited = inherited;
+
+            if (child != null && !child.listeners.isEmpty()) {
+                childInherited = new ArrayList<>(inherited);
+                childInherited.addAll(child.listeners);
+            }
+
+            Object oldValue = oldMap.containsKey(name) ? this.config.resolve(oldMap, name, oldMap.get(name)) : ABSENT;
+            Object newValue = newMap.containsKey(name) ? this.config.resolve(newMap, name, newMap.get(name)) : ABSENT;
+
+            path.add(childName);
+            this.compare(oldValue, newValue, child, path, childInherited, events);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static void collectChildren(Node node, List<Registration> listeners) {
+        for (Node child : node.children.values()) {
+            listeners.addAll(child.listeners);
+            ConfigListeners.collectChildren(child, listeners);
+        }
+    }
+
+    private static void fire(List<Event> events) {
+        for (Event event : events) {
+            event.registration.listener.onChange(event.change);
+        }
+    }
+
+    /**
+     * Gets the path of {@code key} from root, without root key name.
+     *
+     * @param key Key.
+     * @return Path of {@code key} from root.
+     */
+    static List<String> pathOf(Key<?> key) {
+        List<String> path = new ArrayList<>();
+        Key<?> current = key;
+
+        while (current != null && !(current instanceof Config.RootKey<?>)) {
+            path.add(current.getName());
+            current = current.getParent();
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static final class Node {
+        private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+
+        /**
+         * Number of listeners registered to this node and its children. Guarded by {@link
+         * ConfigListeners} instance lock.
+         */
+        private volatile int observed;
+    }
+
+    private static final class Event {
+        private final Registration registration;
+        private final ConfigChange change;
+
+        Event(Registration registration, ConfigChange change) {
+            this.registration = registration;
+            this.change = change;
+        }
+    }
+
+    /**
+     * Registration of a {@link ConfigListener}.
+     */
+    final class Registration implements ConfigListener.Registration {
+        private final List<String> path;
+        private final ConfigListener listener;
+
+        Registration(List<String> path, ConfigListener listener) {
+            this.path = path;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            ConfigListeners.this.remove(this);
+        }
+    }
+}
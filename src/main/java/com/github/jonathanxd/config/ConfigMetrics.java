@@ -0,0 +1,138 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+/**
+ * Sink of {@link Config} metrics.
+ *
+ * All methods have a no-op default implementation, so sinks only need to implement the metrics they
+ * are interested in. Methods are called in the thread that performed the operation, so they should
+ * be cheap and thread-safe. Metrics are only collected when a sink other than {@link #NONE} is set
+ * through {@link Config#setMetrics(ConfigMetrics)}.
+ *
+ * @see InMemoryConfigMetrics
+ */
+public interface ConfigMetrics {
+
+    /**
+     * Sink that discards all metrics, metrics are not collected when this sink is used.
+     */
+    ConfigMetrics NONE = new ConfigMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "ConfigMetrics.NONE";
+        }
+    };
+
+    /**
+     * Returns whether metrics should be collected for this sink.
+     *
+     * @return Whether metrics should be collected for this sink.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records a {@link Config#load()}.
+     *
+     * @param nanos   Time taken to load, including backend parse time.
+     * @param entries Number of entries of loaded document (map entries and list elements).
+     */
+    default void load(long nanos, long entries) {
+    }
+
+    /**
+     * Records a {@link Config#save()}.
+     *
+     * @param nanos   Time taken to save, including backend render time.
+     * @param entries Number of entries of saved document (map entries and list elements).
+     */
+    default void save(long nanos, long entries) {
+    }
+
+    /**
+     * Records a document parse made by a backend.
+     *
+     * @param backend Name of the backend.
+     * @param nanos   Time taken to parse the document.
+     * @param size    Size of the document in characters, or in bytes if the document was parsed
+     *                from bytes.
+     */
+    default void parse(String backend, long nanos, long size) {
+    }
+
+    /**
+     * Records a document render made by a backend.
+     *
+     * @param backend Name of the backend.
+     * @param nanos   Time taken to render the document.
+     * @param size    Size of the document in characters.
+     */
+    default void render(String backend, long nanos, long size) {
+    }
+
+    /**
+     * Records a serializer lookup that was resolved from cache.
+     *
+     * @param type Type of the serializer.
+     */
+    default void serializerCacheHit(TypeInfo<?> type) {
+    }
+
+    /**
+     * Records a serializer lookup that was not resolved from cache.
+     *
+     * @param type Type of the serializer.
+     */
+    default void serializerCacheMiss(TypeInfo<?> type) {
+    }
+
+    /**
+     * Records a {@link Storage#get(Key) value fetch} of a non-emulated key.
+     *
+     * @param key Key.
+     */
+    default void get(Key<?> key) {
+    }
+
+    /**
+     * Records a {@link Storage#store(Key, Object) value store} of a non-emulated key.
+     *
+     * @param key Key.
+     */
+    default void store(Key<?> key) {
+    }
+}
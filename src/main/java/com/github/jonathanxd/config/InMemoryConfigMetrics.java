@@ -0,0 +1,276 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ConfigMetrics} that keeps metrics in memory.
+ *
+ * Latencies are recorded in {@link Histogram histograms} with power-of-two nanosecond buckets.
+ * Key access counts are kept per {@link KeyUtil#getPathAsString(Key) key path}.
+ */
+public class InMemoryConfigMetrics implements ConfigMetrics {
+
+    private final Histogram load = new Histogram();
+    private final Histogram save = new Histogram();
+    private final Map<String, Histogram> parse = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> render = new ConcurrentHashMap<>();
+    private final LongAdder serializerCacheHits = new LongAdder();
+    private final LongAdder serializerCacheMisses = new LongAdder();
+    private final Map<String, LongAdder> gets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> stores = new ConcurrentHashMap<>();
+    private final AtomicLong documentSize = new AtomicLong();
+    private final AtomicLong documentEntries = new AtomicLong();
+
+    @Override
+    public void load(long nanos, long entries) {
+        this.load.record(nanos);
+        this.documentEntries.set(entries);
+    }
+
+    @Override
+    public void save(long nanos, long entries) {
+        this.save.record(nanos);
+        this.documentEntries.set(entries);
+    }
+
+    @Override
+    public void parse(String backend, long nanos, long size) {
+        this.parse.computeIfAbsent(backend, b -> new Histogram()).record(nanos);
+        this.documentSize.set(size);
+    }
+
+    @Override
+    public void render(String backend, long nanos, long size) {
+        this.render.computeIfAbsent(backend, b -> new Histogram()).record(nanos);
+        this.documentSize.set(size);
+    }
+
+    @Override
+    public void serializerCacheHit(TypeInfo<?> type) {
+        this.serializerCacheHits.increment();
+    }
+
+    @Override
+    public void serializerCacheMiss(TypeInfo<?> type) {
+        this.serializerCacheMisses.increment();
+    }
+
+    @Override
+    public void get(Key<?> key) {
+        this.gets.computeIfAbsent(KeyUtil.getPathAsString(key), k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void store(Key<?> key) {
+        this.stores.computeIfAbsent(KeyUtil.getPathAsString(key), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the histogram of {@link Config#load()} latencies.
+     *
+     * @return Histogram of {@link Config#load()} latencies.
+     */
+    public Histogram getLoad() {
+        return this.load;
+    }
+
+    /**
+     * Gets the histogram of {@link Config#save()} latencies.
+     *
+     * @return Histogram of {@link Config#save()} latencies.
+     */
+    public Histogram getSave() {
+        return this.save;
+    }
+
+    /**
+     * Gets the histograms of document parse latencies by backend name.
+     *
+     * @return Histograms of document parse latencies by backend name.
+     */
+    public Map<String, Histogram> getParse() {
+        return Collections.unmodifiableMap(this.parse);
+    }
+
+    /**
+     * Gets the histograms of document render latencies by backend name.
+     *
+     * @return Histograms of document render latencies by backend name.
+     */
+    public Map<String, Histogram> getRender() {
+        return Collections.unmodifiableMap(this.render);
+    }
+
+    /**
+     * Gets the number of serializer lookups resolved from cache.
+     *
+     * @return Number of serializer lookups resolved from cache.
+     */
+    public long getSerializerCacheHits() {
+        return this.serializerCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of serializer lookups not resolved from cache.
+     *
+     * @return Number of serializer lookups not resolved from cache.
+     */
+    public long getSerializerCacheMisses() {
+        return this.serializerCacheMisses.sum();
+    }
+
+    /**
+     * Gets the number of value fetches of key path.
+     *
+     * @param path Key path, as provided by {@link KeyUtil#getPathAsString(Key)}.
+     * @return Number of value fetches of key path.
+     */
+    public long getGets(String path) {
+        LongAdder adder = this.gets.get(path);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * Gets the number of value stores of key path.
+     *
+     * @param path Key path, as provided by {@link KeyUtil#getPathAsString(Key)}.
+     * @return Number of value stores of key path.
+     */
+    public long getStores(String path) {
+        LongAdder adder = this.stores.get(path);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * Gets the size of last parsed or rendered document, in characters (or in bytes if the document
+     * was parsed from bytes).
+     *
+     * @return Size of last parsed or rendered document.
+     */
+    public long getDocumentSize() {
+        return this.documentSize.get();
+    }
+
+    /**
+     * Gets the number of entries of last loaded or saved document.
+     *
+     * @return Number of entries of last loaded or saved document.
+     */
+    public long getDocumentEntries() {
+        return this.documentEntries.get();
+    }
+
+    /**
+     * Latency histogram with power-of-two nanosecond buckets. Bucket {@code i} counts latencies
+     * lower than {@code 2^i} nanoseconds and not lower than {@code 2^(i-1)}.
+     */
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(0L, nanos);
+
+            this.buckets.incrementAndGet(Math.min(63, 64 - Long.numberOfLeadingZeros(value)));
+            this.count.increment();
+            this.total.add(value);
+            this.max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Gets the number of recorded latencies.
+         *
+         * @return Number of recorded latencies.
+         */
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        /**
+         * Gets the sum of recorded latencies in nanoseconds.
+         *
+         * @return Sum of recorded latencies in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return this.total.sum();
+        }
+
+        /**
+         * Gets the max recorded latency in nanoseconds.
+         *
+         * @return Max recorded latency in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return this.max.get();
+        }
+
+        /**
+         * Gets an upper bound of the latency at {@code percentile}.
+         *
+         * @param percentile Percentile, between {@code 0} and {@code 100}.
+         * @return Upper bound in nanoseconds of the latency at {@code percentile}, or {@code 0} if
+         * no latency was recorded.
+         */
+        public long getPercentileNanos(double percentile) {
+            long count = this.getCount();
+
+            if (count == 0)
+                return 0L;
+
+            long rank = (long) Math.ceil(count * (percentile / 100.0));
+            long seen = 0;
+
+            for (int i = 0; i < this.buckets.length(); ++i) {
+                seen += this.buckets.get(i);
+
+                if (seen >= rank)
+                    return Math.min(i == 63 ? Long.MAX_VALUE : (1L << i) - 1, this.getMaxNanos());
+            }
+
+            return this.getMaxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram[count=" + this.getCount()
+                    + ", totalNanos=" + this.getTotalNanos()
+                    + ", maxNanos=" + this.getMaxNanos() + "]";
+        }
+    }
+}
@@ -29,6 +29,7 @@ package com.github.jonathanxd.config;
 
 import com.github.jonathanxd.iutils.type.TypeInfo;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,6 +47,9 @@ import java.util.List;
  * <p>
  * Note that, even that you could create keys pointing to indexes which there is no data (eg index equal or greater than list size),
  * reading and writing value operations ensures that there is a value in those indexes.
+ * <p>
+ * Elements are read from and written to the stored list in place by index, so accessing an element does not depend on
+ * the list size. To access all elements of a list, use {@link #forAllIndexes(Key)}.
  *
  * @param <T> Type of value.
  */
@@ -78,6 +82,36 @@ public class IndexKey<T> extends Key<T> {
         );
     }
 
+    /**
+     * Creates IndexKeys which point to all elements currently present in the value referenced by {@code key}. All
+     * keys share the same storage, and the list is read only once to determine its size.
+     * <p>
+     * Example usage:
+     * {@code
+     * <pre>
+     *     for (IndexKey<Map<String, Object>> server : IndexKey.forAllIndexes(servers)) {
+     *         String host = server.getKey("host", String.class).getValue();
+     *     }
+     * </pre>
+     * }
+     *
+     * @param key The key which points to the list in the storage.
+     * @param <V> Type of the element.
+     * @return IndexKeys pointing to all elements in the value pointed by {@code key}, empty if there is no value.
+     */
+    public static <V> List<IndexKey<V>> forAllIndexes(Key<List<V>> key) {
+        Storage.InnerIndexStorage storage = (Storage.InnerIndexStorage) Storage.createInnerIndexStorage(key);
+        TypeInfo<V> elementType = key.getTypeInfo().getTypeParameters().get(0).cast();
+        int size = storage.size();
+        List<IndexKey<V>> keys = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            keys.add(new IndexKey<>(key.getConfig(), key, i, elementType, storage, key.getOriginalKey()));
+        }
+
+        return keys;
+    }
+
     public int getIndex() {
         return index;
     }
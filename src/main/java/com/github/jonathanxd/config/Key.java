@@ -30,9 +30,11 @@ package com.github.jonathanxd.config;
 import com.github.jonathanxd.iutils.string.ToStringHelper;
 import com.github.jonathanxd.iutils.type.TypeInfo;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
@@ -60,7 +62,8 @@ import java.util.function.Supplier;
  * and the key type is not supported by {@link com.github.jonathanxd.config.backend.Backend}.
  *
  * Keys are identified by {@link #getConfig() config}, {@link #getParent() parent key} and {@link
- * #getName() key name}.
+ * #getName() key name}. Child keys are interned by their parent key, so repeated {@link
+ * #getKey(String, TypeInfo) lookups} of the same name and type return the same key instance.
  *
  * Some configuration APIs allows you to create {@code Section} instances where keys reside, in
  * {@code Config}, Keys reside in {@link Storage} and sections are simple keys with {@link Void}
@@ -71,6 +74,13 @@ import java.util.function.Supplier;
  */
 public class Key<T> {
 
+    /**
+     * Max number of child key names interned by a key. Children with other names are created on
+     * every lookup, so sections with unbounded entries (such as entries named by identifiers) do not
+     * retain keys indefinitely.
+     */
+    private static final int MAX_INTERNED_CHILDREN = 256;
+
     private final Config config;
     private final Key<?> parent;
     private final String name;
@@ -78,6 +88,17 @@ public class Key<T> {
     private final Storage storage;
     private final Key<?> original;
 
+    /**
+     * Interned child keys by name, created in the first {@link #getKey(String, TypeInfo) child
+     * lookup}. Keys with same name and different types share the array.
+     */
+    private volatile Map<String, Key<?>[]> children;
+
+    /**
+     * Cached hash code, {@code 0} if not computed yet.
+     */
+    private int hash;
+
     Key(Config config, Key<?> parent, String name, TypeInfo<T> typeInfo, Storage storage, Key<?> original) {
         this.config = config;
         this.parent = parent;
@@ -368,9 +389,114 @@ public class Key<T> {
      */
     @SuppressWarnings("unchecked")
     public <V> Key<V> getKey(String name, TypeInfo<V> typeInfo) {
+        Key<V> key = this.getChild(name, typeInfo);
+
+        if (key != null)
+            return key;
+
         Storage storage = Storage.createInnerStorage(this);
 
-        return new Key<>(this.getConfig(), this, name, typeInfo, storage, null);
+        return this.internChild(new Key<>(this.getConfig(), this, name, typeInfo, storage, null));
+    }
+
+    /**
+     * Gets the interned child key with {@code name} and {@code typeInfo}.
+     *
+     * @param name     Name of the key.
+     * @param typeInfo Type of the key.
+     * @param <V>      Type of the key.
+     * @return Interned child key, or {@code null} if there is no child key interned with {@code
+     * name} and {@code typeInfo}.
+     */
+    @SuppressWarnings("unchecked")
+    <V> Key<V> getChild(String name, TypeInfo<V> typeInfo) {
+        Map<String, Key<?>[]> children = this.children;
+
+        if (children == null)
+            return null;
+
+        Key<?>[] keys = children.get(name);
+
+        if (keys != null) {
+            for (Key<?> key : keys) {
+                if (key.typeInfo.equals(typeInfo))
+                    return (Key<V>) key;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Interns the child {@code key}. Children of emulated keys are not interned, since emulated
+     * keys are short lived.
+     *
+     * @param key Child key.
+     * @param <V> Type of the key.
+     * @return Interned child key with same name and type of {@code key}, which is {@code key} if
+     * there was no one, or {@code key} itself if it could not be interned.
+     */
+    @SuppressWarnings("unchecked")
+    <V> Key<V> internChild(Key<V> key) {
+        if (this.isEmulated())
+            return key;
+
+        Map<String, Key<?>[]> children = this.children;
+
+        if (children == null) {
+            synchronized (this) {
+                children = this.children;
+
+                if (children == null)
+                    this.children = children = new ConcurrentHashMap<>();
+            }
+        }
+
+        if (children.size() >= MAX_INTERNED_CHILDREN && !children.containsKey(key.name))
+            return key;
+
+        Key<?>[] keys = children.merge(key.name, new Key<?>[]{key}, (present, added) -> {
+            for (Key<?> child : present) {
+                if (child.typeInfo.equals(key.typeInfo))
+                    return present;
+            }
+
+            Key<?>[] copy = Arrays.copyOf(present, present.length + 1);
+            copy[present.length] = key;
+            return copy;
+        });
+
+        for (Key<?> child : keys) {
+            if (child.typeInfo.equals(key.typeInfo))
+                return (Key<V>) child;
+        }
+
+        return key;
+    }
+
+    /**
+     * Compiles the path of this key, the compiled key resolves the section where the value resides
+     * only once, instead of walking through all parent sections in every operation.
+     *
+     * @return Compiled key.
+     * @see CompiledKey
+     */
+    public CompiledKey<T> compile() {
+        return new CompiledKey<>(this);
+    }
+
+    /**
+     * Binds the section of this key to objects of type {@code type}, the section is mapped to an
+     * object in a single pass, and the object is cached until the section changes.
+     *
+     * @param type Record, interface or plain object type.
+     * @param <R>  Type of bound object.
+     * @return Binding of section of this key.
+     * @see Binding
+     * @see Config#bind(Key, Class)
+     */
+    public <R> Binding<R> bind(Class<R> type) {
+        return this.getConfig().bind(this, type);
     }
 
     /**
@@ -395,7 +521,22 @@ public class Key<T> {
      *                                       {@link com.github.jonathanxd.config.backend.Backend}.
      */
     public void setValue(T value) {
-        this.getStorage().store(this, value);
+        if (this.getConfig().getListeners().isObserved(this))
+            this.getConfig().getListeners().change(this, () -> this.getStorage().store(this, value));
+        else
+            this.getStorage().store(this, value);
+    }
+
+    /**
+     * Registers a {@code listener} of changes to value of this key and values of all its child
+     * keys.
+     *
+     * @param listener Listener of changes.
+     * @return Registration of listener.
+     * @see Config#addListener(Key, ConfigListener)
+     */
+    public ConfigListener.Registration addListener(ConfigListener listener) {
+        return this.getConfig().addListener(this, listener);
     }
 
     /**
@@ -433,6 +574,139 @@ public class Key<T> {
         return this.getValue();
     }
 
+    /**
+     * Fetches the value from {@link Storage value storage} as {@code int}.
+     *
+     * Unlike {@link #getValue()}, the value is read directly from the {@link Storage storage}
+     * without going through a {@link com.github.jonathanxd.config.serialize.Serializer}, and
+     * {@link Number numbers} produced by the {@link com.github.jonathanxd.config.backend.Backend}
+     * are converted without allocation. Subclasses of {@link Key} (such as {@link
+     * ValueProcessKey}) may override {@link #getValue()}, for those the value is always read
+     * through {@link #getValue()}.
+     *
+     * @return Value stored in {@link Storage value storage} as {@code int}.
+     * @throws KeyNotFoundException          If there is no value associated to this key.
+     * @throws UnsupportedValueTypeException If stored value is {@code null}.
+     * @see Primitives#toInt(Object)
+     */
+    public int getInt() {
+        return Primitives.toInt(this.fetch());
+    }
+
+    /**
+     * Fetches the value from {@link Storage value storage} as {@code long}.
+     *
+     * @return Value stored in {@link Storage value storage} as {@code long}.
+     * @throws KeyNotFoundException          If there is no value associated to this key.
+     * @throws UnsupportedValueTypeException If stored value is {@code null}.
+     * @see #getInt()
+     * @see Primitives#toLong(Object)
+     */
+    public long getLong() {
+        return Primitives.toLong(this.fetch());
+    }
+
+    /**
+     * Fetches the value from {@link Storage value storage} as {@code double}.
+     *
+     * @return Value stored in {@link Storage value storage} as {@code double}.
+     * @throws KeyNotFoundException          If there is no value associated to this key.
+     * @throws UnsupportedValueTypeException If stored value is {@code null}.
+     * @see #getInt()
+     * @see Primitives#toDouble(Object)
+     */
+    public double getDouble() {
+        return Primitives.toDouble(this.fetch());
+    }
+
+    /**
+     * Fetches the value from {@link Storage value storage} as {@code boolean}.
+     *
+     * @return Value stored in {@link Storage value storage} as {@code boolean}.
+     * @throws KeyNotFoundException          If there is no value associated to this key.
+     * @throws UnsupportedValueTypeException If stored value is {@code null}.
+     * @see #getInt()
+     * @see Primitives#toBoolean(Object)
+     */
+    public boolean getBoolean() {
+        return Primitives.toBoolean(this.fetch());
+    }
+
+    /**
+     * Pushes the {@code int} {@code value} to {@link Storage value storage}.
+     *
+     * The value is stored the same way as {@link #setValue(Object)} does, and subclasses of {@link
+     * Key} receive the value through {@link #setValue(Object)}.
+     *
+     * @param value Value to push to {@link Storage value storage}.
+     * @throws IllegalStateException If {@link #getTypeInfo() type of this key} does not accept
+     *                               {@link Integer} values.
+     */
+    public void setInt(int value) {
+        this.push(value);
+    }
+
+    /**
+     * Pushes the {@code long} {@code value} to {@link Storage value storage}.
+     *
+     * @param value Value to push to {@link Storage value storage}.
+     * @throws IllegalStateException If {@link #getTypeInfo() type of this key} does not accept
+     *                               {@link Long} values.
+     * @see #setInt(int)
+     */
+    public void setLong(long value) {
+        this.push(value);
+    }
+
+    /**
+     * Pushes the {@code double} {@code value} to {@link Storage value storage}.
+     *
+     * @param value Value to push to {@link Storage value storage}.
+     * @throws IllegalStateException If {@link #getTypeInfo() type of this key} does not accept
+     *                               {@link Double} values.
+     * @see #setInt(int)
+     */
+    public void setDouble(double value) {
+        this.push(value);
+    }
+
+    /**
+     * Pushes the {@code boolean} {@code value} to {@link Storage value storage}.
+     *
+     * @param value Value to push to {@link Storage value storage}.
+     * @throws IllegalStateException If {@link #getTypeInfo() type of this key} does not accept
+     *                               {@link Boolean} values.
+     * @see #setInt(int)
+     */
+    public void setBoolean(boolean value) {
+        this.push(value);
+    }
+
+    /**
+     * Fetches the raw value for primitive accessors, subclasses may override {@link #getValue()},
+     * so only plain keys read from {@link Storage storage} directly.
+     */
+    private Object fetch() {
+        if (this.getClass() != Key.class)
+            return this.getValue();
+
+        return this.getStorage().fetchValue(this);
+    }
+
+    /**
+     * Pushes a boxed primitive value, checking it against {@link #getTypeInfo() type of this key}
+     * first, since primitive setters are not constrained by {@code T}.
+     */
+    @SuppressWarnings("unchecked")
+    private void push(Object value) {
+        Class<?> type = this.getTypeInfo().getTypeClass();
+
+        if (!type.isInstance(value) && !(type.isPrimitive() && Primitives.box(type) == value.getClass()))
+            throw new IllegalStateException("Value of type '" + this.getTypeInfo() + "' was expected, but value '" + value + "' was found");
+
+        this.setValue((T) value);
+    }
+
     /**
      * Gets the {@link Config config}.
      *
@@ -529,16 +803,30 @@ public class Key<T> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.getConfig(), this.getOriginalKey(), this.getParent(), this.getName());
+        int hash = this.hash;
+
+        // Parents cache their own hash codes, so this does not walk the entire path
+        if (hash == 0) {
+            hash = Objects.hash(this.getConfig(), this.getOriginalKey(), this.getParent(), this.getName());
+            this.hash = hash;
+        }
+
+        return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
         if (!(obj instanceof Key<?>))
             return super.equals(obj);
 
         Key<?> other = (Key<?>) obj;
 
+        if (this.hashCode() != other.hashCode())
+            return false;
+
         return Objects.equals(this.getConfig(), other.getConfig())
                 && Objects.equals(this.getOriginalKey(), other.getOriginalKey())
                 && Objects.equals(this.getParent(), other.getParent())
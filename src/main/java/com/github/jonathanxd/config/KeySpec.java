@@ -130,4 +130,16 @@ public final class KeySpec<T> {
     public <U> Key<U> get(Key<?> parent, TypeInfo<U> typeInfo) {
         return parent.getKey(this.getName(), typeInfo);
     }
+
+    /**
+     * Gets the {@link Key#compile() compiled} children key of {@code parent} key that this instance
+     * specifies.
+     *
+     * @param parent Parent key to get children key.
+     * @return Compiled children key of {@code parent} key that this instance specifies.
+     * @see CompiledKey
+     */
+    public CompiledKey<T> compile(Key<?> parent) {
+        return this.get(parent).compile();
+    }
 }
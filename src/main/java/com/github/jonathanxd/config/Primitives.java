@@ -0,0 +1,238 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import java.math.BigInteger;
+
+/**
+ * Conversions of values stored by {@link com.github.jonathanxd.config.backend.Backend backends} to
+ * primitive values.
+ *
+ * Backends commonly produce {@link Number numbers} and {@link Boolean booleans} directly, those are
+ * converted without allocation. {@link String Strings} (and other values, through {@link
+ * Object#toString()}) are parsed.
+ *
+ * Conversions never narrow silently: a number that does not fit in the requested type is rejected
+ * with {@link NumberFormatException}, the same way parsing its text would be. Only integer numbers
+ * are converted to integral types without parsing, other numbers are parsed from their text, so
+ * floating point values such as {@code 5.0} are rejected even if they are integral.
+ */
+public final class Primitives {
+
+    private Primitives() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Converts {@code value} to {@code boolean}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code boolean}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     */
+    public static boolean toBoolean(Object value) {
+        if (value instanceof Boolean)
+            return (Boolean) value;
+
+        return Boolean.parseBoolean(Primitives.toText(value));
+    }
+
+    /**
+     * Converts {@code value} to {@code byte}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code byte}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws NumberFormatException         If {@code value} is not a number and could not be
+     *                                       parsed, or is a number that is not integral or is out
+     *                                       of range.
+     */
+    public static byte toByte(Object value) {
+        if (value instanceof Number)
+            return (byte) Primitives.toIntegral((Number) value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+
+        return Byte.parseByte(Primitives.toText(value));
+    }
+
+    /**
+     * Converts {@code value} to {@code short}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code short}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws NumberFormatException         If {@code value} is not a number and could not be
+     *                                       parsed, or is a number that is not integral or is out
+     *                                       of range.
+     */
+    public static short toShort(Object value) {
+        if (value instanceof Number)
+            return (short) Primitives.toIntegral((Number) value, Short.MIN_VALUE, Short.MAX_VALUE);
+
+        return Short.parseShort(Primitives.toText(value));
+    }
+
+    /**
+     * Converts {@code value} to {@code char}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code char}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws StringIndexOutOfBoundsException If {@code value} is an empty string.
+     */
+    public static char toChar(Object value) {
+        if (value instanceof Character)
+            return (Character) value;
+
+        return Primitives.toText(value).charAt(0);
+    }
+
+    /**
+     * Converts {@code value} to {@code int}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code int}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws NumberFormatException         If {@code value} is not a number and could not be
+     *                                       parsed, or is a number that is not integral or is out
+     *                                       of range.
+     */
+    public static int toInt(Object value) {
+        if (value instanceof Number)
+            return (int) Primitives.toIntegral((Number) value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        return Integer.parseInt(Primitives.toText(value));
+    }
+
+    /**
+     * Converts {@code value} to {@code float}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code float}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws NumberFormatException         If {@code value} is not a number and could not be
+     *                                       parsed, or is a finite number out of range of {@code
+     *                                       float}.
+     */
+    public static float toFloat(Object value) {
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            float f = number.floatValue();
+
+            if (Float.isInfinite(f) && !Double.isInfinite(number.doubleValue()))
+                throw new NumberFormatException("Value '" + value + "' is out of range of float.");
+
+            return f;
+        }
+
+        return Float.parseFloat(Primitives.toText(value));
+    }
+
+    /**
+     * Converts {@code value} to {@code long}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code long}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws NumberFormatException         If {@code value} is not a number and could not be
+     *                                       parsed, or is a number that is not integral or is out
+     *                                       of range.
+     */
+    public static long toLong(Object value) {
+        if (value instanceof Number)
+            return Primitives.toIntegral((Number) value, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        return Long.parseLong(Primitives.toText(value));
+    }
+
+    /**
+     * Converts {@code value} to {@code double}.
+     *
+     * @param value Value to convert.
+     * @return {@code value} as {@code double}.
+     * @throws UnsupportedValueTypeException If {@code value} is {@code null}.
+     * @throws NumberFormatException         If {@code value} is not a number and could not be
+     *                                       parsed.
+     */
+    public static double toDouble(Object value) {
+        if (value instanceof Number)
+            return ((Number) value).doubleValue();
+
+        return Double.parseDouble(Primitives.toText(value));
+    }
+
+    /**
+     * Gets the wrapper class of primitive {@code type}.
+     *
+     * @param type Primitive type.
+     * @return Wrapper class of {@code type}, or {@code type} if it is not primitive.
+     */
+    static Class<?> box(Class<?> type) {
+        if (type == Integer.TYPE) return Integer.class;
+        if (type == Long.TYPE) return Long.class;
+        if (type == Double.TYPE) return Double.class;
+        if (type == Boolean.TYPE) return Boolean.class;
+        if (type == Float.TYPE) return Float.class;
+        if (type == Short.TYPE) return Short.class;
+        if (type == Byte.TYPE) return Byte.class;
+        if (type == Character.TYPE) return Character.class;
+        return type;
+    }
+
+    private static long toIntegral(Number value, long min, long max) {
+        long result;
+
+        if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+            result = value.longValue();
+        } else if (value instanceof BigInteger) {
+            BigInteger integer = (BigInteger) value;
+
+            if (integer.bitLength() >= Long.SIZE)
+                throw Primitives.outOfRange(value, min, max);
+
+            result = integer.longValue();
+        } else {
+            result = Long.parseLong(value.toString());
+        }
+
+        if (result < min || result > max)
+            throw Primitives.outOfRange(value, min, max);
+
+        return result;
+    }
+
+    private static NumberFormatException outOfRange(Number value, long min, long max) {
+        return new NumberFormatException("Value '" + value + "' is not an integral number in range [" + min + ", " + max + "].");
+    }
+
+    private static String toText(Object value) {
+        if (value == null)
+            throw new UnsupportedValueTypeException("Null value cannot be converted to a primitive value.");
+
+        return value.toString();
+    }
+}
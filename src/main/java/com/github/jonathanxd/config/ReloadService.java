@@ -0,0 +1,414 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.AbstractIOBackend;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Reloads {@link Config configurations} when the files they are loaded from change.
+ *
+ * A single {@link ReloadService} watches any number of configuration files with a single {@link
+ * WatchService} and a single daemon thread, so a service should be shared by all configurations of
+ * an application.
+ *
+ * Bursts of file events are debounced: a configuration is only reloaded after its file has not
+ * changed for the {@link #getDebounce() debounce period}, and is not reloaded if the file content is
+ * the same as when the file was last loaded. Configurations are reloaded through {@link
+ * Config#load()}, which publishes the new configuration tree atomically.
+ *
+ * <pre>{@code
+ *      ReloadService reloadService = new ReloadService(Duration.ofMillis(250));
+ *      ReloadService.Registration registration = reloadService.watch(config);
+ *
+ *      // Later
+ *      registration.cancel();
+ *      reloadService.close();
+ * }</pre>
+ */
+public final class ReloadService {
+
+    /**
+     * Debounce period in nanoseconds.
+     */
+    private final long debounce;
+
+    /**
+     * Handler of reload failures.
+     */
+    private final BiConsumer<Config, Throwable> errorHandler;
+
+    /**
+     * Lock of watching state.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Registrations by absolute file path. Guarded by {@link #lock}.
+     */
+    private final Map<Path, List<Registration>> registrations = new HashMap<>();
+
+    /**
+     * Watch keys of directories. Guarded by {@link #lock}.
+     */
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+
+    /**
+     * Watch service, created with watching thread. Guarded by {@link #lock}.
+     */
+    private WatchService watchService;
+
+    /**
+     * Whether this service is closed. Guarded by {@link #lock}.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a reload service that reports reload failures to the {@link
+     * Thread#getUncaughtExceptionHandler() uncaught exception handler} of the watching thread,
+     * which delegates to the {@link Thread#getDefaultUncaughtExceptionHandler() default uncaught
+     * exception handler} when one is set.
+     *
+     * @param debounce Period without file changes to wait before reloading configuration.
+     */
+    public ReloadService(Duration debounce) {
+        this(debounce, ReloadService::reportUncaught);
+    }
+
+    /**
+     * Creates a reload service.
+     *
+     * @param debounce     Period without file changes to wait before reloading configuration.
+     * @param errorHandler Handler of reload failures, called in the watching thread.
+     */
+    public ReloadService(Duration debounce, BiConsumer<Config, Throwable> errorHandler) {
+        if (debounce.isNegative())
+            throw new IllegalArgumentException("Debounce period must not be negative. Debounce: '" + debounce + "'.");
+
+        this.debounce = debounce.toNanos();
+        this.errorHandler = errorHandler;
+    }
+
+    private static void reportUncaught(Config config, Throwable throwable) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+    }
+
+    /**
+     * Watches the file that {@code config} is loaded from. The {@link Config#getBackend() backend}
+     * must be an {@link AbstractIOBackend} which {@link com.github.jonathanxd.config.backend.ConfigIO}
+     * is backed by a file.
+     *
+     * @param config Configuration to reload.
+     * @return Registration of {@code config}.
+     * @throws IllegalArgumentException If {@code config} is not loaded from a file.
+     * @throws IOException              If file directory could not be watched.
+     */
+    public Registration watch(Config config) throws IOException {
+        if (!(config.getBackend() instanceof AbstractIOBackend))
+            throw new IllegalArgumentException("Backend of configuration '" + config + "' is not an AbstractIOBackend.");
+
+        Path path = ((AbstractIOBackend) config.getBackend()).getIo().getPath()
+                .orElseThrow(() -> new IllegalArgumentException("Configuration '" + config + "' is not loaded from a file."));
+
+        return this.watch(config, path);
+    }
+
+    /**
+     * Watches {@code path} and reloads {@code config} when it changes.
+     *
+     * @param config Configuration to reload.
+     * @param path   File that {@code config} is loaded from.
+     * @return Registration of {@code config}.
+     * @throws IOException If {@code path} directory could not be watched.
+     */
+    public Registration watch(Config config, Path path) throws IOException {
+        Path file = path.toAbsolutePath().normalize();
+        Path directory = file.getParent();
+        Registration registration = new Registration(config, file, ReloadService.hash(file));
+
+        synchronized (this.lock) {
+            if (this.closed)
+                throw new IllegalStateException("Reload service is closed.");
+
+            if (this.watchService == null)
+                this.start();
+
+            if (!this.directories.containsKey(directory)) {
+                this.directories.put(directory, directory.register(this.watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+
+            this.registrations.computeIfAbsent(file, f -> new ArrayList<>()).add(registration);
+        }
+
+        return registration;
+    }
+
+    /**
+     * Stops watching all files and stops the watching thread.
+     *
+     * @throws IOException If watch service could not be closed.
+     */
+    public void close() throws IOException {
+        synchronized (this.lock) {
+            this.closed = true;
+            this.registrations.clear();
+            this.directories.clear();
+
+            if (this.watchService != null)
+                this.watchService.close();
+        }
+    }
+
+    /**
+     * Gets the period without file changes to wait before reloading configuration.
+     *
+     * @return Period without file changes to wait before reloading configuration.
+     */
+    public Duration getDebounce() {
+        return Duration.ofNanos(this.debounce);
+    }
+
+    private void start() throws IOException {
+        WatchService watchService = FileSystems.getDefault().newWatchService();
+        this.watchService = watchService;
+
+        Thread thread = new Thread(() -> this.run(watchService), "Config-ReloadService");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(WatchService watchService) {
+        try {
+            while (true) {
+                long wait = this.reloadDue();
+                WatchKey key = wait < 0
+                        ? watchService.take()
+                        : watchService.poll(wait, TimeUnit.NANOSECONDS);
+
+                if (key != null)
+                    this.process(key);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            // Service closed
+        }
+    }
+
+    /**
+     * Marks registrations of changed files to be reloaded after debounce period.
+     *
+     * @param key Signalled key.
+     */
+    private void process(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        long due = System.nanoTime() + this.debounce;
+
+        synchronized (this.lock) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Events lost, checks all files of the directory
+                    for (Map.Entry<Path, List<Registration>> entry : this.registrations.entrySet()) {
+                        if (directory.equals(entry.getKey().getParent()))
+                            entry.getValue().forEach(registration -> registration.due = due);
+                    }
+                    continue;
+                }
+
+                List<Registration> registrations = this.registrations.get(directory.resolve((Path) event.context()));
+
+                if (registrations != null)
+                    registrations.forEach(registration -> registration.due = due);
+            }
+        }
+
+        key.reset();
+    }
+
+    /**
+     * Reloads registrations which debounce period has elapsed.
+     *
+     * @return Nanoseconds until the next registration reload, or {@code -1} if there is no pending
+     * reload.
+     */
+    private long reloadDue() {
+        long now = System.nanoTime();
+        long next = -1;
+        List<Registration> due = new ArrayList<>();
+
+        synchronized (this.lock) {
+            for (List<Registration> registrations : this.registrations.values()) {
+                for (Registration registration : registrations) {
+                    if (registration.due == -1)
+                        continue;
+
+                    long remaining = registration.due - now;
+
+                    if (remaining <= 0) {
+                        registration.due = -1;
+                        due.add(registration);
+                    } else if (next == -1 || remaining < next) {
+                        next = remaining;
+                    }
+                }
+            }
+        }
+
+        for (Registration registration : due) {
+            registration.reload();
+        }
+
+        return next;
+    }
+
+    /**
+     * Computes the hash of {@code file} content.
+     *
+     * @param file File.
+     * @return Hash of {@code file} content, or {@code -1} if file does not exists.
+     * @throws IOException If file could not be read.
+     */
+    private static long hash(Path file) throws IOException {
+        byte[] bytes;
+
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return -1L;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Registration of a configuration to be reloaded.
+     */
+    public final class Registration {
+        private final Config config;
+        private final Path file;
+
+        /**
+         * Hash of last loaded file content. Only accessed by watching thread after construction.
+         */
+        private long hash;
+
+        /**
+         * Time to reload configuration, or {@code -1} if there is no pending reload. Guarded by
+         * {@link ReloadService#lock}.
+         */
+        private long due = -1L;
+
+        Registration(Config config, Path file, long hash) {
+            this.config = config;
+            this.file = file;
+            this.hash = hash;
+        }
+
+        private void reload() {
+            try {
+                long hash = ReloadService.hash(this.file);
+
+                // File removed or not changed since last load
+                if (hash == -1L || hash == this.hash)
+                    return;
+
+                this.config.load();
+                // Only recorded once loaded, so content that failed to load is retried on next change.
+                this.hash = hash;
+            } catch (Throwable t) {
+                ReloadService.this.errorHandler.accept(this.config, t);
+            }
+        }
+
+        /**
+         * Stops watching configuration file.
+         */
+        public void cancel() {
+            synchronized (ReloadService.this.lock) {
+                List<Registration> registrations = ReloadService.this.registrations.get(this.file);
+
+                if (registrations == null || !registrations.remove(this))
+                    return;
+
+                if (registrations.isEmpty()) {
+                    ReloadService.this.registrations.remove(this.file);
+
+                    Path directory = this.file.getParent();
+                    boolean watched = ReloadService.this.registrations.keySet().stream()
+                            .anyMatch(path -> directory.equals(path.getParent()));
+
+                    if (!watched) {
+                        WatchKey key = ReloadService.this.directories.remove(directory);
+
+                        if (key != null)
+                            key.cancel();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets the configuration to reload.
+         *
+         * @return Configuration to reload.
+         */
+        public Config getConfig() {
+            return this.config;
+        }
+
+        /**
+         * Gets the watched file.
+         *
+         * @return Watched file.
+         */
+        public Path getFile() {
+            return this.file;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules {@link Config#save() saves} of a {@link Config} in background, coalescing saves
+ * requested in a short period of time in a single save.
+ *
+ * Every {@link #schedule()} call postpones the pending save by {@link #getDelay() delay}, but a
+ * pending save is never postponed more than {@link #getMaxDelay() max delay} after it was first
+ * requested. Saves of the same scheduler never run concurrently.
+ *
+ * Configuration is {@link Config#save() saved} in the executor thread, configurations that are
+ * modified while a save is scheduled must use {@link StorageMode#CONCURRENT}.
+ *
+ * <pre>{@code
+ *      SaveScheduler scheduler = new SaveScheduler(config, Duration.ofMillis(200), Duration.ofSeconds(2));
+ *
+ *      key.setValue(value);
+ *      scheduler.schedule();
+ *
+ *      // On shutdown
+ *      scheduler.close().join();
+ * }</pre>
+ */
+public final class SaveScheduler {
+
+    /**
+     * Configuration to save.
+     */
+    private final Config config;
+
+    /**
+     * Delay between last save request and the save.
+     */
+    private final long delay;
+
+    /**
+     * Max delay between first save request and the save.
+     */
+    private final long maxDelay;
+
+    /**
+     * Executor of saves.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Lock of scheduling state.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Lock held while saving.
+     */
+    private final Object saveLock = new Object();
+
+    /**
+     * Save that is waiting to run. Guarded by {@link #lock}.
+     */
+    private Batch pending;
+
+    /**
+     * Future of last requested save. Guarded by {@link #lock}.
+     */
+    private CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+
+    /**
+     * Whether this scheduler is closed. Guarded by {@link #lock}.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a save scheduler that runs saves in a shared daemon thread.
+     *
+     * @param config   Configuration to save.
+     * @param delay    Delay between last save request and the save.
+     * @param maxDelay Max delay between first save request and the save.
+     */
+    public SaveScheduler(Config config, Duration delay, Duration maxDelay) {
+        this(config, delay, maxDelay, SharedExecutor.EXECUTOR);
+    }
+
+    /**
+     * Creates a save scheduler.
+     *
+     * @param config   Configuration to save.
+     * @param delay    Delay between last save request and the save.
+     * @param maxDelay Max delay between first save request and the save.
+     * @param executor Executor of saves. The executor is not shutdown when this scheduler is
+     *                 closed.
+     */
+    public SaveScheduler(Config config, Duration delay, Duration maxDelay, ScheduledExecutorService executor) {
+        if (delay.isNegative() || maxDelay.compareTo(delay) < 0)
+            throw new IllegalArgumentException("Delay must not be negative and max delay must not be less than delay. Delay: '" + delay + "', max delay: '" + maxDelay + "'.");
+
+        this.config = config;
+        this.delay = delay.toNanos();
+        this.maxDelay = maxDelay.toNanos();
+        this.executor = executor;
+    }
+
+    /**
+     * Requests a save of the configuration.
+     *
+     * @return Future completed when the configuration is saved, or completed exceptionally if the
+     * save fails or the executor rejects it (for example, if the executor is shutdown).
+     * @throws IllegalStateException If this scheduler is closed.
+     */
+    public CompletableFuture<Void> schedule() {
+        synchronized (this.lock) {
+            if (this.closed)
+                throw new IllegalStateException("Save scheduler of configuration '" + this.config + "' is closed.");
+
+            long now = System.nanoTime();
+            Batch batch = this.pending;
+
+            if (batch == null) {
+                batch = new Batch(now);
+                this.pending = batch;
+                this.last = batch.future;
+            } else {
+                batch.timer.cancel(false);
+            }
+
+            long at = Math.min(now + this.delay, batch.requested + this.maxDelay);
+            Batch scheduled = batch;
+
+            try {
+                batch.timer = this.executor.schedule(() -> this.run(scheduled), Math.max(0L, at - now), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                this.reject(batch, e);
+            }
+
+            return batch.future;
+        }
+    }
+
+    /**
+     * Saves the pending changes immediately (in background).
+     *
+     * @return Future completed when all requested saves are completed, or completed exceptionally
+     * if the save fails or the executor rejects it.
+     */
+    public CompletableFuture<Void> flush() {
+        synchronized (this.lock) {
+            Batch batch = this.pending;
+
+            if (batch == null)
+                return this.last;
+
+            batch.timer.cancel(false);
+
+            try {
+                this.executor.execute(() -> this.run(batch));
+            } catch (RejectedExecutionException e) {
+                this.reject(batch, e);
+            }
+
+            return batch.future;
+        }
+    }
+
+    /**
+     * Closes this scheduler, saving pending changes. Saves could not be scheduled after this
+     * scheduler is closed.
+     *
+     * @return Future completed when all requested saves are completed.
+     */
+    public CompletableFuture<Void> close() {
+        synchronized (this.lock) {
+            this.closed = true;
+            return this.flush();
+        }
+    }
+
+    /**
+     * Gets the configuration saved by this scheduler.
+     *
+     * @return Configuration saved by this scheduler.
+     */
+    public Config getConfig() {
+        return this.config;
+    }
+
+    /**
+     * Gets the delay between last save request and the save.
+     *
+     * @return Delay between last save request and the save.
+     */
+    public Duration getDelay() {
+        return Duration.ofNanos(this.delay);
+    }
+
+    /**
+     * Gets the max delay between first save request and the save.
+     *
+     * @return Max delay between first save request and the save.
+     */
+    public Duration getMaxDelay() {
+        return Duration.ofNanos(this.maxDelay);
+    }
+
+    /**
+     * Discards {@code batch}, which could not be submitted to the executor, failing its future.
+     * Must be called while holding {@link #lock}.
+     */
+    private void reject(Batch batch, RejectedExecutionException e) {
+        if (this.pending == batch)
+            this.pending = null;
+
+        batch.future.completeExceptionally(e);
+    }
+
+    private void run(Batch batch) {
+        synchronized (this.lock) {
+            // Already saved by another timer or flush.
+            if (this.pending != batch)
+                return;
+
+            this.pending = null;
+        }
+
+        synchronized (this.saveLock) {
+            try {
+                this.config.save();
+                batch.future.complete(null);
+            } catch (Throwable t) {
+                batch.future.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * Save requests coalesced in a single save.
+     */
+    private static final class Batch {
+        private final long requested;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private ScheduledFuture<?> timer;
+
+        Batch(long requested) {
+            this.requested = requested;
+        }
+    }
+
+    /**
+     * Holder of executor shared by all schedulers, lazily created.
+     */
+    private static final class SharedExecutor {
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Config-SaveScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
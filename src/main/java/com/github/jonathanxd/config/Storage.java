@@ -28,13 +28,12 @@
 package com.github.jonathanxd.config;
 
 import com.github.jonathanxd.config.backend.Backend;
+import com.github.jonathanxd.config.backend.LazyValue;
+import com.github.jonathanxd.config.serialize.Serializer;
 import com.github.jonathanxd.config.serialize.Serializers;
-import com.github.jonathanxd.iutils.function.stream.BiStreams;
 import com.github.jonathanxd.iutils.type.TypeInfo;
 
 import java.util.*;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Value storage class, this class serialize and pushes the value, fetches and deserialize the
@@ -144,10 +143,8 @@ public abstract class Storage {
     }
 
     /**
-     * Creates a list storage that stores values in a map and pushes them as a list. Every element
-     * key should be unique.
-     *
-     * Used in serialization process.
+     * Creates a list storage that stores values in a list and pushes them as a list every time an
+     * element is pushed. Every element key should be unique.
      *
      * @param key Root key.
      * @return List storage that store values in {@code list}.
@@ -156,6 +153,19 @@ public abstract class Storage {
         return new ListStorage(key);
     }
 
+    /**
+     * Creates a list storage that stores values in a list and pushes them as a list only when
+     * {@link ListStorage#flush() flushed}. Every element key should be unique.
+     *
+     * Used in serialization process, where all elements are pushed before the list is published.
+     *
+     * @param key Root key.
+     * @return List storage that store values in {@code list} until flushed.
+     */
+    public static ListStorage createBufferedListStorage(Key<?> key) {
+        return new ListStorage(key, false);
+    }
+
     /**
      * Stores the value linked to {@code key}.
      *
@@ -169,11 +179,15 @@ public abstract class Storage {
     @SuppressWarnings("unchecked")
     public final void store(Key<?> key, TypeInfo<?> typeInfo, Object value) {
         Serializers serializers = this.getConfig().getSerializers();
+        ConfigMetrics metrics = this.getConfig().getMetrics();
+
+        if (metrics.isEnabled() && !key.isEmulated())
+            metrics.store(key);
 
-        boolean b = serializers.hasSerializer(typeInfo);
+        Optional<? extends Serializer<?>> serializer = serializers.findSerializer(typeInfo);
 
-        if (b) {
-            serializers.serializeUnchecked(value, key, typeInfo);
+        if (serializer.isPresent()) {
+            ((Serializer<Object>) serializer.get()).serialize(value, (Key<Object>) key, typeInfo, key.getStorage(), serializers);
         } else {
             Backend backend = key.getConfig().getBackend();
 
@@ -197,13 +211,18 @@ public abstract class Storage {
      * @param typeInfo Type info.
      * @return Value linked to {@code key}.
      */
+    @SuppressWarnings("unchecked")
     public final Object get(Key<?> key, TypeInfo<?> typeInfo) {
         Serializers serializers = this.getConfig().getSerializers();
+        ConfigMetrics metrics = this.getConfig().getMetrics();
+
+        if (metrics.isEnabled() && !key.isEmulated())
+            metrics.get(key);
 
-        boolean b = serializers.hasSerializer(typeInfo);
+        Optional<? extends Serializer<?>> serializer = serializers.findSerializer(typeInfo);
 
-        if (b) {
-            return serializers.deserializeUnchecked(key, typeInfo);
+        if (serializer.isPresent()) {
+            return ((Serializer<Object>) serializer.get()).deserialize((Key<Object>) key, typeInfo, key.getStorage(), serializers);
         } else {
             Backend backend = key.getConfig().getBackend();
 
@@ -283,6 +302,26 @@ public abstract class Storage {
      */
     public abstract void pushValue(Key<?> key, Object value);
 
+    /**
+     * Pushes the value directly to storage (no serialization is made) only if there is no value
+     * associated to {@code key}.
+     *
+     * The default implementation checks and pushes in two steps, implementations backed by shared
+     * sections should override this method to push atomically.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return Value associated to {@code key} after this operation, which is {@code value} if there
+     * was no value associated to {@code key}.
+     */
+    public Object pushValueIfAbsent(Key<?> key, Object value) {
+        if (this.exists(key))
+            return this.fetchValue(key);
+
+        this.pushValue(key, value);
+        return value;
+    }
+
     /**
      * Fetches the value linked to {@code key} directly from storage (no deserialization is made).
      *
@@ -308,6 +347,27 @@ public abstract class Storage {
      */
     public abstract Config getConfig();
 
+    /**
+     * Notifies the {@link #getConfig() configuration} about a structural change if {@code value}
+     * or {@code previous} value is a section ({@link Map}, {@link List} or {@link LazyValue lazy
+     * section}). Should be called by implementations after a value is pushed.
+     *
+     * @param previous Value replaced by pushed value, or {@code null} if there was no value.
+     * @param value    Pushed value.
+     */
+    final void onPush(Object previous, Object value) {
+        if (Storage.isSection(value) || Storage.isSection(previous)) {
+            Config config = this.getConfig();
+
+            if (config != null)
+                config.structureChanged();
+        }
+    }
+
+    private static boolean isSection(Object value) {
+        return value instanceof Map<?, ?> || value instanceof List<?> || value instanceof LazyValue;
+    }
+
     private <T> T checkType(T value, TypeInfo<?> typeInfo) {
         if (!typeInfo.getTypeClass().isInstance(value))
             throw new IllegalStateException("Value of type '" + typeInfo + "' was expected, but value '" + value + "' was found");
@@ -343,15 +403,29 @@ public abstract class Storage {
 
         @Override
         public void pushValue(Key<?> key, Object value) {
-            this.map.put(key.getName(), value);
+            Object previous = this.map.put(key.getName(), value);
+            this.onPush(previous, value);
+        }
+
+        @Override
+        public Object pushValueIfAbsent(Key<?> key, Object value) {
+            Object present = this.map.putIfAbsent(key.getName(), value);
+
+            if (present != null)
+                return present;
+
+            this.onPush(null, value);
+            return value;
         }
 
         @Override
         public Object fetchValue(Key<?> key) {
-            if (!this.exists(key))
+            Object value = this.map.get(key.getName());
+
+            if (value == null && !this.map.containsKey(key.getName()))
                 throw new KeyNotFoundException(key);
 
-            return this.map.get(key.getName());
+            return value;
         }
 
         @Override
@@ -374,6 +448,14 @@ public abstract class Storage {
         }
     }
 
+    /**
+     * Storage that references to elements of a list in an outer storage by {@link
+     * IndexKey#getIndex() index}.
+     *
+     * Elements are accessed in the stored list directly, without de-serializing the list, and
+     * are written in place, so reading or writing an element costs the same regardless of the list
+     * size.
+     */
     static class InnerIndexStorage extends InnerStorage {
         /**
          * Creates a storage that references to a section in {@code outer} storage.
@@ -388,29 +470,58 @@ public abstract class Storage {
 
         @Override
         public boolean exists(Key<?> key) {
-            int index = this.indexKey(key).getIndex();
-            return index < this.retrieveList().size();
+            List<?> objects = this.findList();
+            return objects != null && this.indexKey(key).getIndex() < objects.size();
         }
 
         @Override
         public Object fetchValue(Key<?> key) {
-            if (!this.exists(key))
+            List<?> objects = this.findList();
+            int index = this.indexKey(key).getIndex();
+
+            if (objects == null || index >= objects.size())
                 throw new KeyNotFoundException(key);
 
-            List<?> objects = this.retrieveList();
-            return objects.get(this.indexKey(key).getIndex());
+            return objects.get(index);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void pushValue(Key<?> key, Object value) {
-            if (!this.exists(key))
+            List<Object> objects = (List<Object>) this.findList();
+            int index = this.indexKey(key).getIndex();
+
+            if (objects == null || index >= objects.size())
                 throw new KeyNotFoundException(key);
 
-            List<Object> objects = (List<Object>) this.retrieveList();
-            objects.set(this.indexKey(key).getIndex(), value);
+            Object previous;
 
-            ((Key<List<Object>>) super.key).setValue(objects);
+            try {
+                previous = objects.set(index, value);
+            } catch (UnsupportedOperationException e) {
+                // Unmodifiable list provided by backend or by user, replaced by a modifiable copy
+                List<Object> copy = this.getConfig().getStorageMode().newList(objects);
+                previous = copy.set(index, value);
+                this.outer.pushValue(super.key, copy);
+            }
+
+            this.onPush(previous, value);
+        }
+
+        @Override
+        public Object pushValueIfAbsent(Key<?> key, Object value) {
+            // Elements cannot be added, only replaced
+            return this.fetchValue(key);
+        }
+
+        /**
+         * Gets the size of the list.
+         *
+         * @return Size of the list, or {@code 0} if the list does not exist.
+         */
+        int size() {
+            List<?> objects = this.findList();
+            return objects == null ? 0 : objects.size();
         }
 
         private IndexKey<?> indexKey(Key<?> key) {
@@ -421,8 +532,17 @@ public abstract class Storage {
             }
         }
 
-        private List<?> retrieveList() {
-            Object o = super.key.getValue();
+        /**
+         * Finds the stored list, without de-serializing it.
+         *
+         * @return Stored list, or {@code null} if there is no value.
+         */
+        private List<?> findList() {
+            Object o = InnerStorage.find(this.outer, super.key);
+
+            if (o == InnerStorage.ABSENT)
+                return null;
+
             if (o instanceof List<?>) {
                 return ((List<?>) o);
             } else {
@@ -434,10 +554,18 @@ public abstract class Storage {
     /**
      * Storage that references to a section in an outer storage.
      *
+     * Sections are created only when a value is pushed, {@link #exists(Key)} and {@link
+     * #fetchValue(Key)} of keys in missing sections never modify the configuration tree.
+     *
      * @see Storage#createInnerStorage(Key, Storage)
      */
     static class InnerStorage extends Storage {
 
+        /**
+         * Marks a value that is not present.
+         */
+        private static final Object ABSENT = new Object();
+
         /**
          * Path key
          */
@@ -458,28 +586,45 @@ public abstract class Storage {
         InnerStorage(Key<?> key, Storage outer) {
             this.key = key;
             this.outer = outer;
-            this.createIfNeeded();
         }
 
         private void createIfNeeded() {
             if (!this.outer.exists(this.key)) {
-                LinkedHashMap<String, Object> newMap = new LinkedHashMap<>();
-                this.outer.pushValue(this.key, newMap);
+                this.outer.pushValueIfAbsent(this.key, this.getConfig().getStorageMode().newMap());
             }
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void pushValue(Key<?> key, Object value) {
-            this.getMap(key).put(key.getName(), value);
+            Object previous = this.getMap(key).put(key.getName(), value);
+            this.onPush(previous, value);
+        }
+
+        @Override
+        public Object pushValueIfAbsent(Key<?> key, Object value) {
+            Object present = this.getMap(key).putIfAbsent(key.getName(), value);
+
+            if (present != null)
+                return present;
+
+            this.onPush(null, value);
+            return value;
         }
 
         @Override
         public Object fetchValue(Key<?> key) {
-            if (!this.exists(key))
+            Map<String, Object> map = this.findMap(key);
+
+            if (map == null)
                 throw new KeyNotFoundException(key);
 
-            return this.getMap(key).get(key.getName());
+            Object value = map.get(key.getName());
+
+            if (value == null && !map.containsKey(key.getName()))
+                throw new KeyNotFoundException(key);
+
+            return value;
         }
 
         @Override
@@ -487,8 +632,20 @@ public abstract class Storage {
             return this.key.getConfig();
         }
 
+        /**
+         * Gets the section map where {@code knownKey} resides, creating the section if it does not
+         * exist.
+         *
+         * @param knownKey Key in the section.
+         * @return Section map where {@code knownKey} resides.
+         */
         @SuppressWarnings("unchecked")
         public Map<String, Object> getMap(Key<?> knownKey) {
+            Map<String, Object> found = this.findMap(knownKey);
+
+            if (found != null)
+                return found;
+
             this.createIfNeeded();
             Object o = this.outer.fetchValue(this.key);
             if (!(o instanceof Map<?, ?>)) {
@@ -500,7 +657,7 @@ public abstract class Storage {
                         }
                     }
 
-                    Map<String, Object> map = new LinkedHashMap<>();
+                    Map<String, Object> map = this.getConfig().getStorageMode().newMap();
                     objects.add(map);
                     return map;
                 }
@@ -511,13 +668,65 @@ public abstract class Storage {
             return (Map<String, Object>) o;
         }
 
+        /**
+         * Finds the section map where {@code knownKey} resides without creating missing sections.
+         *
+         * @param knownKey Key in the section.
+         * @return Section map where {@code knownKey} resides, or {@code null} if the section does
+         * not exist.
+         */
+        @SuppressWarnings("unchecked")
+        Map<String, Object> findMap(Key<?> knownKey) {
+            Object o = InnerStorage.find(this.outer, this.key);
+
+            if (o instanceof Map<?, ?>)
+                return (Map<String, Object>) o;
+
+            if (o instanceof List<?>) {
+                for (Object obj : (List<?>) o) {
+                    if (obj instanceof Map<?, ?> && ((Map<?, ?>) obj).containsKey(knownKey.getName())) {
+                        return (Map<String, Object>) obj;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Fetches the value of {@code key} in {@code storage} without creating missing sections.
+         * Inner storages are resolved through {@link #findMap(Key)}, so the path is walked once.
+         *
+         * @param storage Storage where {@code key} resides.
+         * @param key     Key to fetch value.
+         * @return Value of {@code key}, or {@link #ABSENT} if there is no value.
+         */
+        private static Object find(Storage storage, Key<?> key) {
+            if (storage.getClass() != InnerStorage.class)
+                return storage.exists(key) ? storage.fetchValue(key) : ABSENT;
+
+            Map<String, Object> map = ((InnerStorage) storage).findMap(key);
+
+            if (map == null)
+                return ABSENT;
+
+            Object value = map.get(key.getName());
+
+            if (value == null && !map.containsKey(key.getName()))
+                return ABSENT;
+
+            return value;
+        }
+
         private Object fetchValue() {
             return this.outer.fetchValue(this.key);
         }
 
         @Override
         public boolean exists(Key<?> key) {
-            return this.getMap(key).containsKey(key.getName());
+            Map<String, Object> map = this.findMap(key);
+
+            return map != null && map.containsKey(key.getName());
         }
 
         @Override
@@ -551,7 +760,7 @@ public abstract class Storage {
         AutoPushMapStorage(Key<?> key) {
             this.key = key;
             this.config = this.key.getConfig();
-            this.key.getStorage().pushValue(key, new LinkedHashMap<>());
+            this.key.getStorage().pushValue(key, this.config.getStorageMode().newMap());
         }
 
         @SuppressWarnings("unchecked")
@@ -559,14 +768,26 @@ public abstract class Storage {
             Storage storage = this.key.getStorage();
 
             if (!storage.exists(this.key))
-                storage.pushValue(this.key, new LinkedHashMap<>());
+                return (Map<String, Object>) storage.pushValueIfAbsent(this.key, this.config.getStorageMode().newMap());
 
             return (Map<String, Object>) storage.fetchValue(this.key);
         }
 
         @Override
         public void pushValue(Key<?> key, Object value) {
-            this.getMap().put(key.getName(), value);
+            Object previous = this.getMap().put(key.getName(), value);
+            this.onPush(previous, value);
+        }
+
+        @Override
+        public Object pushValueIfAbsent(Key<?> key, Object value) {
+            Object present = this.getMap().putIfAbsent(key.getName(), value);
+
+            if (present != null)
+                return present;
+
+            this.onPush(null, value);
+            return value;
         }
 
         @Override
@@ -576,10 +797,13 @@ public abstract class Storage {
 
         @Override
         public Object fetchValue(Key<?> key) {
-            if (!this.exists(key))
+            Map<String, Object> map = this.getMap();
+            Object value = map.get(key.getName());
+
+            if (value == null && !map.containsKey(key.getName()))
                 throw new KeyNotFoundException(key);
 
-            return this.getMap().get(key.getName());
+            return value;
         }
 
         @Override
@@ -594,16 +818,21 @@ public abstract class Storage {
     }
 
     /**
-     * Storage that stores values in a key-value pair in a map, and stores it in key storage as a
-     * list of values only. The keys used to fetch and store values should be unique for each list
-     * entry.
+     * Storage that stores values in a local list, and stores it in key storage as a list of values
+     * only. The keys used to fetch and store values should be unique for each list entry.
+     *
+     * Values are appended in place to a local list and are pushed to {@link #key key} {@link
+     * Key#getStorage() storage} every time an element is pushed to this storage. A {@link
+     * #createBufferedListStorage(Key) buffered} storage pushes them only when {@link #flush()} is
+     * called, so pushing {@code N} elements and flushing once takes linear time.
      *
-     * Values is automatically pushed to {@link #key key} {@link Key#getStorage() storage} every
-     * time an element is pushed to this storage.
+     * Fetch operation returns a value from local {@link #values list} instead of directly from the
+     * {@code key} {@link Key#getStorage() storage}, this happens because the association of {@link
+     * Key key}-list element is only present in {@link ListStorage}.
      *
-     * Fetch operation returns a value from local {@link #map cache map} instead of directly from
-     * the {@code key} {@link Key#getStorage() storage}, this happens because the association of
-     * {@link Key key}-list element is only present in {@link ListStorage}.
+     * Elements may also be addressed by position with {@link #moveTo(int)}, then every key
+     * addresses the element at the current position, which allows a single scratch key to be
+     * reused for all elements.
      */
     public static final class ListStorage extends Storage {
         /**
@@ -617,11 +846,25 @@ public abstract class Storage {
         private final Key<?> key;
 
         /**
-         * Key-value pair.
+         * Element key name to index in {@link #values}.
          */
-        private final Map<String, Object> map = new LinkedHashMap<>();
-        private final Supplier<List<Object>> valuesListSupplier =
-                () -> BiStreams.mapStream(this.map).collectValue(Collectors.toList());
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        /**
+         * Element values.
+         */
+        private final List<Object> values = new ArrayList<>();
+
+        /**
+         * Whether values are pushed to {@link #key key} storage on every push.
+         */
+        private final boolean autoPush;
+
+        /**
+         * Position of element addressed by all keys, or {@code -1} if elements are addressed by key
+         * name.
+         */
+        private int position = -1;
 
         /**
          * Creates a Object storage.
@@ -629,49 +872,100 @@ public abstract class Storage {
          * @param key Root key.
          */
         public ListStorage(Key<?> key) {
+            this(key, true);
+        }
+
+        /**
+         * Creates a Object storage.
+         *
+         * @param key      Root key.
+         * @param autoPush Whether values are pushed to {@code key} storage on every push, or only
+         *                 when {@link #flush() flushed}.
+         */
+        private ListStorage(Key<?> key, boolean autoPush) {
             this.key = key;
             this.config = this.getKey().getConfig();
-            this.createIfNeeded();
-        }
+            this.autoPush = autoPush;
 
-        private void createIfNeeded() {
-            if (!this.key.getStorage().exists(this.key))
-                this.key.getStorage().pushValue(this.key, new ArrayList<>());
+            if (autoPush && !key.getStorage().exists(key))
+                key.getStorage().pushValueIfAbsent(key, this.config.getStorageMode().newList());
         }
 
-        @SuppressWarnings("unchecked")
-        private List<Object> getList() {
-            this.createIfNeeded();
-            Storage storage = this.key.getStorage();
-            return (List<Object>) storage.fetchValue(this.key);
+        /**
+         * Moves to element at {@code position}, after that, all keys addresses the element at
+         * {@code position} regardless of their name. The position must be at most the number of
+         * elements of this storage, moving to the position after the last element allows a new
+         * element to be appended.
+         *
+         * @param position Position of element.
+         */
+        public void moveTo(int position) {
+            if (position < 0 || position > this.values.size())
+                throw new IndexOutOfBoundsException("Position: " + position + ". Size: " + this.values.size());
+
+            this.position = position;
         }
 
         @Override
         public void pushValue(Key<?> key, Object value) {
-            this.map.put(key.getName(), value);
+            if (this.position != -1) {
+                if (this.position == this.values.size())
+                    this.values.add(value);
+                else
+                    this.values.set(this.position, value);
+            } else {
+                Integer index = this.indexes.putIfAbsent(key.getName(), this.values.size());
+
+                if (index == null)
+                    this.values.add(value);
+                else
+                    this.values.set(index, value);
+            }
 
-            this.store();
+            if (this.autoPush)
+                this.flush();
         }
 
         @Override
         public Object fetchValue(Key<?> key) {
-            if (!this.exists(key))
+            int index = this.indexOf(key);
+
+            if (index == -1)
                 throw new KeyNotFoundException(key);
 
-            return this.map.get(key.getName());
+            return this.values.get(index);
         }
 
         @Override
         public boolean exists(Key<?> key) {
-            return this.map.containsKey(key.getName());
+            return this.indexOf(key) != -1;
         }
 
-        private Key<?> getKey() {
-            return this.key;
+        /**
+         * Gets the index of element addressed by {@code key}.
+         *
+         * @param key Key.
+         * @return Index of element addressed by {@code key}, or {@code -1} if there is no element
+         * addressed by {@code key}.
+         */
+        private int indexOf(Key<?> key) {
+            if (this.position != -1)
+                return this.position < this.values.size() ? this.position : -1;
+
+            Integer index = this.indexes.get(key.getName());
+            return index == null ? -1 : index;
         }
 
-        private void store() {
-            this.key.getStorage().pushValue(this.key, this.valuesListSupplier.get());
+        /**
+         * Pushes all values of this storage as a list to {@link #key key} {@link Key#getStorage()
+         * storage}, replacing the current list.
+         */
+        public void flush() {
+            this.key.getStorage().pushValue(this.key, this.config.getStorageMode().newList(this.values));
+        }
+
+        private Key<?> getKey() {
+            return this.key;
         }
 
         @Override
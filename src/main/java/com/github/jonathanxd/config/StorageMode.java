@@ -0,0 +1,186 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Specifies which containers are used by {@link Config} to store sections and lists.
+ *
+ * @see Config#Config(com.github.jonathanxd.config.backend.Backend, StorageMode)
+ */
+public enum StorageMode {
+
+    /**
+     * Sections are stored in {@link LinkedHashMap} and lists in {@link ArrayList}. This mode is not
+     * thread-safe, configuration must be confined to a single thread or externally synchronized.
+     */
+    DEFAULT {
+        @Override
+        public <K, V> Map<K, V> newMap() {
+            return new LinkedHashMap<>();
+        }
+
+        @Override
+        public <E> List<E> newList(Collection<? extends E> elements) {
+            return new ArrayList<>(elements);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map<Object, Object> adopt(Map<?, ?> map) {
+            return (Map<Object, Object>) map;
+        }
+
+        @Override
+        public Map<Object, Object> snapshot(Map<?, ?> map) {
+            return new LinkedHashMap<>(map);
+        }
+    },
+
+    /**
+     * Sections are stored in insertion-ordered maps guarded by their own lock (so each section is
+     * locked independently of other sections), and lists are stored in {@link
+     * CopyOnWriteArrayList}. In this mode, a single {@link Config} can be read and written by
+     * multiple threads.
+     *
+     * Loaded values are copied into concurrent containers, and values are deeply copied to be
+     * saved, so backends never iterate over sections being concurrently modified.
+     */
+    CONCURRENT {
+        @Override
+        public <K, V> Map<K, V> newMap() {
+            return Collections.synchronizedMap(new LinkedHashMap<>());
+        }
+
+        @Override
+        public <E> List<E> newList(Collection<? extends E> elements) {
+            return new CopyOnWriteArrayList<>(elements);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map<Object, Object> adopt(Map<?, ?> map) {
+            return (Map<Object, Object>) StorageMode.deepCopy(map, this);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map<Object, Object> snapshot(Map<?, ?> map) {
+            return (Map<Object, Object>) StorageMode.deepCopy(map, DEFAULT);
+        }
+    };
+
+    /**
+     * Deeply copies {@code value} to containers created by {@code mode}. The source containers are
+     * locked while they are copied.
+     *
+     * @param value Value to copy.
+     * @param mode  Mode to create containers.
+     * @return Copy of {@code value}, or {@code value} if it is not a container.
+     */
+    static Object deepCopy(Object value, StorageMode mode) {
+        if (value instanceof Map<?, ?>) {
+            Map<?, ?> source = (Map<?, ?>) value;
+            Map<Object, Object> copy = mode.newMap();
+
+            synchronized (source) {
+                for (Map.Entry<?, ?> entry : source.entrySet()) {
+                    copy.put(entry.getKey(), StorageMode.deepCopy(entry.getValue(), mode));
+                }
+            }
+
+            return copy;
+        } else if (value instanceof List<?>) {
+            List<?> source = (List<?>) value;
+            List<Object> copy = new ArrayList<>(source.size());
+
+            synchronized (source) {
+                for (Object element : source) {
+                    copy.add(StorageMode.deepCopy(element, mode));
+                }
+            }
+
+            return mode.newList(copy);
+        }
+
+        return value;
+    }
+
+    /**
+     * Creates a new empty section map.
+     *
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return New empty section map.
+     */
+    public abstract <K, V> Map<K, V> newMap();
+
+    /**
+     * Creates a new empty list.
+     *
+     * @param <E> Element type.
+     * @return New empty list.
+     */
+    public <E> List<E> newList() {
+        return this.newList(Collections.emptyList());
+    }
+
+    /**
+     * Creates a new list with all {@code elements}.
+     *
+     * @param elements Elements to add to the list.
+     * @param <E>      Element type.
+     * @return New list with all {@code elements}.
+     */
+    public abstract <E> List<E> newList(Collection<? extends E> elements);
+
+    /**
+     * Adopts a {@code map} loaded by a {@link com.github.jonathanxd.config.backend.Backend} as
+     * configuration tree, copying it if the map containers are not suitable for this mode.
+     *
+     * @param map Loaded map.
+     * @return Map to use as configuration tree.
+     */
+    public abstract Map<Object, Object> adopt(Map<?, ?> map);
+
+    /**
+     * Creates a snapshot of configuration tree {@code map} to be saved by a {@link
+     * com.github.jonathanxd.config.backend.Backend}.
+     *
+     * @param map Configuration tree.
+     * @return Snapshot of configuration tree.
+     */
+    public abstract Map<Object, Object> snapshot(Map<?, ?> map);
+}
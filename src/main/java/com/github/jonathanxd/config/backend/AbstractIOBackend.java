@@ -27,25 +27,61 @@
  */
 package com.github.jonathanxd.config.backend;
 
+import com.github.jonathanxd.config.ConfigMetrics;
 import com.github.jonathanxd.iutils.exception.RethrowException;
 
+import java.io.FilterReader;
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public abstract class AbstractIOBackend implements Backend {
 
     private final ConfigIO io;
+    private volatile ConfigMetrics metrics = ConfigMetrics.NONE;
 
     protected AbstractIOBackend(ConfigIO io) {
         this.io = io;
     }
 
+    @Override
+    public void setMetrics(ConfigMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public final Map<Object, Object> load() {
+        return this.read(this::load);
+    }
+
+    /**
+     * Opens a reader of {@link #getIo() io} and applies {@code parser} to it, recording the parse
+     * if metrics are enabled.
+     *
+     * @param parser Parser of configuration.
+     * @param <R>    Result type.
+     * @return Result of {@code parser}.
+     */
+    protected final <R> R read(Function<Reader, R> parser) {
+        ConfigMetrics metrics = this.metrics;
+
         try (Reader r = this.getIo().openReader()) {
-            return load(r);
+            if (!metrics.isEnabled())
+                return parser.apply(r);
+
+            CountingReader counting = new CountingReader(r);
+            long start = System.nanoTime();
+            R result = parser.apply(counting);
+            metrics.parse(this.getClass().getSimpleName(), System.nanoTime() - start, counting.count);
+            return result;
         } catch (IOException e) {
             throw RethrowException.rethrow(e);
         }
@@ -53,9 +89,84 @@ public abstract class AbstractIOBackend implements Backend {
 
     @Override
     public final void save(Map<Object, Object> map) {
+        this.write(writer -> this.save(map, writer));
+    }
+
+    /**
+     * Applies {@code bytesParser} to the {@link ConfigIO#openBuffer() bytes} of {@link #getIo()
+     * io}, recording the parse if metrics are enabled. If {@link #getIo() io} does not provide
+     * bytes, or their charset is not accepted by {@code bytesCharset}, reads configuration with
+     * {@code parser} instead.
+     *
+     * @param bytesCharset Predicate of charsets accepted by {@code bytesParser}.
+     * @param bytesParser  Parser of configuration bytes.
+     * @param parser       Parser of configuration characters.
+     * @param <R>          Result type.
+     * @return Result of {@code bytesParser} or {@code parser}.
+     */
+    protected final <R> R read(Predicate<Charset> bytesCharset,
+                               Function<ByteBuffer, R> bytesParser,
+                               Function<Reader, R> parser) {
+        Optional<Charset> charset = this.getIo().getCharset();
+
+        if (!charset.isPresent() || !bytesCharset.test(charset.get()))
+            return this.read(parser);
+
+        Optional<ByteBuffer> buffer;
+
+        try {
+            buffer = this.getIo().openBuffer();
+        } catch (IOException e) {
+            throw RethrowException.rethrow(e);
+        }
+
+        if (!buffer.isPresent())
+            return this.read(parser);
+
+        ConfigMetrics metrics = this.metrics;
+
+        if (!metrics.isEnabled())
+            return bytesParser.apply(buffer.get());
+
+        long size = buffer.get().remaining();
+        long start = System.nanoTime();
+        R result = bytesParser.apply(buffer.get());
+        metrics.parse(this.getClass().getSimpleName(), System.nanoTime() - start, size);
+        return result;
+    }
+
+    /**
+     * Opens a writer of {@link #getIo() io} and applies {@code renderer} to it, recording the
+     * render if metrics are enabled. If {@code renderer} fails, an {@link ConfigIO.AtomicWriter
+     * atomic writer} is discarded instead of committed.
+     *
+     * @param renderer Renderer of configuration.
+     */
+    protected final void write(Consumer<Writer> renderer) {
         try (Writer w = this.getIo().openWriter()) {
-            this.save(map, w);
-            w.flush();
+            ConfigMetrics metrics = this.metrics;
+
+            try {
+                if (!metrics.isEnabled()) {
+                    renderer.accept(w);
+                } else {
+                    CountingWriter counting = new CountingWriter(w);
+                    long start = System.nanoTime();
+                    renderer.accept(counting);
+                    metrics.render(this.getClass().getSimpleName(), System.nanoTime() - start, counting.count);
+                }
+                w.flush();
+            } catch (Throwable t) {
+                // Keeps the previous configuration instead of committing a partial one.
+                if (w instanceof ConfigIO.AtomicWriter) {
+                    try {
+                        ((ConfigIO.AtomicWriter) w).discard();
+                    } catch (IOException e) {
+                        t.addSuppressed(e);
+                    }
+                }
+                throw t;
+            }
         } catch (IOException e) {
             throw RethrowException.rethrow(e);
         }
@@ -77,7 +188,95 @@ public abstract class AbstractIOBackend implements Backend {
      */
     public abstract void save(Map<Object, Object> map, Writer writer);
 
-    private ConfigIO getIo() {
+    /**
+     * Gets the {@link ConfigIO} used to read and write configuration.
+     *
+     * @return {@link ConfigIO} used to read and write configuration.
+     */
+    public ConfigIO getIo() {
         return this.io;
     }
+
+    /**
+     * Reader which counts read characters.
+     */
+    private static final class CountingReader extends FilterReader {
+        private long count;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+
+            if (c != -1)
+                ++this.count;
+
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int read = super.read(cbuf, off, len);
+
+            if (read > 0)
+                this.count += read;
+
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // Closed by the owner of the underlying reader.
+        }
+    }
+
+    /**
+     * Writer which counts written characters.
+     */
+    private static final class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            ++this.count;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            super.write(cbuf, off, len);
+            this.count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            super.write(str, off, len);
+            this.count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Closed by the owner of the underlying writer.
+            this.flush();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+import com.github.jonathanxd.config.StorageMode;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * {@link AbstractIOBackend} which parses configuration as a stream of {@link TreeHandler events}.
+ *
+ * {@link com.github.jonathanxd.config.Config} loads this backend through {@link
+ * #load(TreeHandler)}, so the parser native tree is never materialized, and saves it through {@link
+ * #save(TreeSource)}, so backends overriding {@link #save(TreeSource, Writer)} render the tree
+ * without copying it.
+ */
+public abstract class AbstractStreamingIOBackend extends AbstractIOBackend implements StreamingBackend {
+
+    protected AbstractStreamingIOBackend(ConfigIO io) {
+        super(io);
+    }
+
+    @Override
+    public final void load(TreeHandler handler) {
+        this.read(this::canParseBytes, buffer -> {
+            this.load(buffer, handler);
+            return null;
+        }, reader -> {
+            this.load(reader, handler);
+            return null;
+        });
+    }
+
+    /**
+     * Returns whether this backend is able to parse configuration bytes encoded with {@code
+     * charset} through {@link #load(ByteBuffer, TreeHandler)}. Default implementation returns
+     * {@code false}.
+     *
+     * @param charset Charset of configuration bytes.
+     * @return Whether this backend is able to parse configuration bytes encoded with {@code
+     * charset}.
+     */
+    protected boolean canParseBytes(Charset charset) {
+        return false;
+    }
+
+    /**
+     * Parses configuration from {@code buffer}, reporting the document to {@code handler}. Only
+     * called if {@link #canParseBytes(Charset)} accepts the charset of configuration bytes.
+     *
+     * @param buffer  Configuration bytes (may be memory-mapped).
+     * @param handler Handler of configuration document.
+     */
+    protected void load(ByteBuffer buffer, TreeHandler handler) {
+        throw new UnsupportedOperationException("Backend '" + this + "' does not parse bytes.");
+    }
+
+    @Override
+    public Map<Object, Object> load(Reader reader) {
+        TreeBuilder builder = new TreeBuilder(StorageMode.DEFAULT);
+        this.load(reader, builder);
+        return builder.getRoot();
+    }
+
+    @Override
+    public final void save(TreeSource source) {
+        this.write(writer -> this.save(source, writer));
+    }
+
+    /**
+     * Renders configuration from {@code source} to {@code writer}.
+     *
+     * The default implementation renders a {@link TreeSource#snapshot() snapshot} of {@code source}
+     * with {@link #save(Map, Writer)}.
+     *
+     * @param source Source of configuration tree.
+     * @param writer Writer of configuration.
+     */
+    public void save(TreeSource source, Writer writer) {
+        this.save(source.snapshot(), writer);
+    }
+
+    /**
+     * Parses configuration from {@code reader}, reporting the document to {@code handler}.
+     *
+     * @param reader  Reader of configuration.
+     * @param handler Handler of configuration document.
+     */
+    public abstract void load(Reader reader, TreeHandler handler);
+}
@@ -28,6 +28,7 @@
 package com.github.jonathanxd.config.backend;
 
 import com.github.jonathanxd.config.CommonTypes;
+import com.github.jonathanxd.config.ConfigMetrics;
 import com.github.jonathanxd.config.Key;
 import com.github.jonathanxd.config.serialize.Serializers;
 import com.github.jonathanxd.iutils.type.TypeInfo;
@@ -90,6 +91,15 @@ public interface Backend {
     default void registerSerializers(Serializers serializers) {
     }
 
+    /**
+     * Called by the frontend when a metrics sink is set. Backends that measure document parse and
+     * render should report them to {@code metrics}.
+     *
+     * @param metrics Metrics sink.
+     */
+    default void setMetrics(ConfigMetrics metrics) {
+    }
+
     /**
      * Specifies a root key different from the {@code defaultRootKey} to be used.
      *
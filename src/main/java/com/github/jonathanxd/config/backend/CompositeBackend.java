@@ -0,0 +1,427 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+import com.github.jonathanxd.config.ConfigMetrics;
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.KeyUtil;
+import com.github.jonathanxd.config.serialize.Serializers;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Backend that composes one configuration tree from many backends.
+ *
+ * All sources are loaded in parallel in the {@link Executor executor} and merged in declaration
+ * order, later sources take precedence over earlier ones: sections are merged recursively and
+ * any other value replaces the value of previous sources. The source that provided each value, and
+ * the source of each section that is provided by only one source, is recorded as its {@link
+ * #getOwner(Key) owner}. When saving, each value is saved to its owner, values that have no owner
+ * (new keys) are saved to the owner of the nearest owned section, or to the last source.
+ *
+ * Sources are also saved in parallel. A source is saved only when its part of the configuration
+ * differs from what it provided in the last load, or received in the last save, so values removed
+ * from the configuration are also removed from their owners while untouched sources are not
+ * rewritten. Values of a source that are overridden by a source of higher precedence are saved
+ * back unchanged to the source.
+ *
+ * Ownership is tracked by the {@link String} representation of keys, the same way keys are looked
+ * up in the configuration, so a key parsed as a number by a source is still owned by it.
+ *
+ * <pre>{@code
+ *      Config config = new Config(new CompositeBackend(Arrays.asList(
+ *              new JsonBackend(parser, ConfigIO.path(defaults)),
+ *              new JsonBackend(parser, ConfigIO.path(user))
+ *      )));
+ * }</pre>
+ */
+public class CompositeBackend implements Backend {
+
+    /**
+     * Sources in ascending order of precedence.
+     */
+    private final List<Backend> sources;
+
+    /**
+     * Executor of loads and saves.
+     */
+    private final Executor executor;
+
+    /**
+     * Ownership of the last loaded tree.
+     */
+    private volatile State state = new State(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * Creates a composite backend that loads and saves sources in the {@link
+     * ForkJoinPool#commonPool() common pool}.
+     *
+     * @param sources Sources in ascending order of precedence.
+     */
+    public CompositeBackend(List<? extends Backend> sources) {
+        this(sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a composite backend.
+     *
+     * @param sources  Sources in ascending order of precedence.
+     * @param executor Executor of loads and saves, for example, a virtual thread per task
+     *                 executor. The executor is not shutdown by this backend.
+     */
+    public CompositeBackend(List<? extends Backend> sources, Executor executor) {
+        if (sources.isEmpty())
+            throw new IllegalArgumentException("At least one source is required.");
+
+        this.sources = Collections.unmodifiableList(new ArrayList<>(sources));
+        this.executor = executor;
+    }
+
+    @Override
+    public Map<Object, Object> load() {
+        List<CompletableFuture<Map<Object, Object>>> futures = new ArrayList<>(this.sources.size());
+
+        for (Backend source : this.sources) {
+            futures.add(CompletableFuture.supplyAsync(source::load, this.executor));
+        }
+
+        Map<Object, Object> root = new LinkedHashMap<>();
+        Map<List<Object>, Backend> owners = new HashMap<>();
+        List<Object> path = new ArrayList<>();
+
+        List<Map<?, ?>> maps = new ArrayList<>(futures.size());
+
+        for (int i = 0; i < futures.size(); i++) {
+            Map<?, ?> map = CompositeBackend.join(futures.get(i));
+            maps.add(map);
+            CompositeBackend.merge(root, map, this.sources.get(i), path, owners);
+        }
+
+        List<Map<Object, Object>> shadowed = new ArrayList<>(maps.size());
+        List<Map<Object, Object>> contents = new ArrayList<>(maps.size());
+
+        for (int i = 0; i < maps.size(); i++) {
+            Map<Object, Object> part = new LinkedHashMap<>();
+            this.shadowed(maps.get(i), this.sources.get(i), owners, path, new ArrayList<>(), part);
+            shadowed.add(part);
+
+            Map<Object, Object> content = new LinkedHashMap<>();
+            CompositeBackend.copy(maps.get(i), content);
+            contents.add(content);
+        }
+
+        this.state = new State(owners, shadowed, contents);
+
+        return root;
+    }
+
+    @Override
+    public void save(Map<Object, Object> map) {
+        State state = this.state;
+        Map<Backend, Map<Object, Object>> parts = new IdentityHashMap<>();
+
+        for (int i = 0; i < this.sources.size(); i++) {
+            Map<Object, Object> part = new LinkedHashMap<>();
+
+            if (i < state.shadowed.size())
+                CompositeBackend.copy(state.shadowed.get(i), part);
+
+            parts.put(this.sources.get(i), part);
+        }
+
+        this.split(map, state.owners, new ArrayList<>(), new ArrayList<>(), parts);
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(this.sources.size());
+        List<Map<Object, Object>> contents = new ArrayList<>(this.sources.size());
+
+        for (int i = 0; i < this.sources.size(); i++) {
+            Backend source = this.sources.get(i);
+            Map<Object, Object> part = parts.get(source);
+
+            if (i < state.contents.size() && part.equals(state.contents.get(i))) {
+                contents.add(state.contents.get(i));
+                continue;
+            }
+
+            Map<Object, Object> content = new LinkedHashMap<>();
+            CompositeBackend.copy(part, content);
+            contents.add(content);
+
+            futures.add(CompletableFuture.runAsync(() -> source.save(part), this.executor));
+        }
+
+        CompositeBackend.join(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])));
+
+        this.state = new State(state.owners, state.shadowed, contents);
+    }
+
+    /**
+     * Gets the source that owns the value of {@code key}. The owner of a value is the source that
+     * provided the value in the last load, or the owner of the nearest owned parent section.
+     *
+     * @param key Key to get owner.
+     * @return Source that owns the value of {@code key}, or the last source if no one owns it.
+     */
+    public Backend getOwner(Key<?> key) {
+        String[] path = KeyUtil.getPath(key);
+
+        return this.getOwner(this.state.owners, Arrays.asList((Object[]) path).subList(1, path.length));
+    }
+
+    /**
+     * Gets sources of this backend.
+     *
+     * @return Sources in ascending order of precedence.
+     */
+    public List<Backend> getSources() {
+        return this.sources;
+    }
+
+    @Override
+    public boolean supports(TypeInfo<?> type) {
+        for (Backend source : this.sources) {
+            if (!source.supports(type))
+                return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void registerSerializers(Serializers serializers) {
+        for (Backend source : this.sources) {
+            source.registerSerializers(serializers);
+        }
+    }
+
+    @Override
+    public void setMetrics(ConfigMetrics metrics) {
+        for (Backend source : this.sources) {
+            source.setMetrics(metrics);
+        }
+    }
+
+    private Backend getOwner(Map<List<Object>, Backend> owners, List<Object> path) {
+        for (int i = path.size(); i > 0; --i) {
+            Backend owner = owners.get(path.subList(0, i));
+
+            if (owner != null)
+                return owner;
+        }
+
+        return this.sources.get(this.sources.size() - 1);
+    }
+
+    /**
+     * Splits values of {@code map} into the part of their owners, {@code path} holds the {@link
+     * String} representation of {@code keys}, which are the keys as present in {@code map}.
+     */
+    private void split(Map<?, ?> map,
+                       Map<List<Object>, Backend> owners,
+                       List<Object> path,
+                       List<Object> keys,
+                       Map<Backend, Map<Object, Object>> parts) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            path.add(String.valueOf(entry.getKey()));
+            keys.add(entry.getKey());
+
+            if (value instanceof Map<?, ?> && !((Map<?, ?>) value).isEmpty()) {
+                this.split((Map<?, ?>) value, owners, path, keys, parts);
+            } else {
+                CompositeBackend.put(parts.get(this.getOwner(owners, path)), keys, value);
+            }
+
+            path.remove(path.size() - 1);
+            keys.remove(keys.size() - 1);
+        }
+    }
+
+    /**
+     * Collects values of {@code map} that are owned by other source than {@code source}.
+     */
+    private void shadowed(Map<?, ?> map,
+                          Backend source,
+                          Map<List<Object>, Backend> owners,
+                          List<Object> path,
+                          List<Object> keys,
+                          Map<Object, Object> part) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            path.add(String.valueOf(entry.getKey()));
+            keys.add(entry.getKey());
+
+            if (value instanceof Map<?, ?> && !((Map<?, ?>) value).isEmpty()) {
+                this.shadowed((Map<?, ?>) value, source, owners, path, keys, part);
+            } else if (this.getOwner(owners, path) != source) {
+                CompositeBackend.put(part, keys, value);
+            }
+
+            path.remove(path.size() - 1);
+            keys.remove(keys.size() - 1);
+        }
+    }
+
+    /**
+     * Puts {@code value} in {@code path} of {@code root}, replacing values that are not sections in
+     * the path.
+     */
+    @SuppressWarnings("unchecked")
+    private static void put(Map<Object, Object> root, List<Object> path, Object value) {
+        Map<Object, Object> target = root;
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            Object section = target.get(path.get(i));
+
+            if (!(section instanceof Map<?, ?>)) {
+                section = new LinkedHashMap<>();
+                target.put(path.get(i), section);
+            }
+
+            target = (Map<Object, Object>) section;
+        }
+
+        target.put(path.get(path.size() - 1), value);
+    }
+
+    /**
+     * Copies {@code map} to {@code target}, sections and lists are copied too, so the copy is not
+     * affected by later changes to {@code map}.
+     */
+    private static void copy(Map<?, ?> map, Map<Object, Object> target) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            target.put(entry.getKey(), CompositeBackend.copy(entry.getValue()));
+        }
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof Map<?, ?>) {
+            Map<Object, Object> section = new LinkedHashMap<>();
+            CompositeBackend.copy((Map<?, ?>) value, section);
+            return section;
+        }
+
+        if (value instanceof List<?>) {
+            List<Object> list = new ArrayList<>(((List<?>) value).size());
+
+            for (Object element : (List<?>) value) {
+                list.add(CompositeBackend.copy(element));
+            }
+
+            return list;
+        }
+
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void merge(Map<Object, Object> target,
+                              Map<?, ?> map,
+                              Backend source,
+                              List<Object> path,
+                              Map<List<Object>, Backend> owners) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            Object current = target.get(key);
+            path.add(String.valueOf(key));
+
+            if (value instanceof Map<?, ?> && current instanceof Map<?, ?>) {
+                // Section is shared by sources
+                owners.remove(path);
+                CompositeBackend.merge((Map<Object, Object>) current, (Map<?, ?>) value, source, path, owners);
+            } else {
+                if (current instanceof Map<?, ?>)
+                    owners.keySet().removeIf(owned -> owned.size() > path.size() && owned.subList(0, path.size()).equals(path));
+
+                if (value instanceof Map<?, ?>) {
+                    Map<Object, Object> section = new LinkedHashMap<>();
+                    target.put(key, section);
+                    CompositeBackend.merge(section, (Map<?, ?>) value, source, path, owners);
+                } else {
+                    target.put(key, value);
+                }
+
+                owners.put(new ArrayList<>(path), source);
+            }
+
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+
+            if (cause instanceof Error)
+                throw (Error) cause;
+
+            throw e;
+        }
+    }
+
+    private static final class State {
+        /**
+         * Owner of each value path and of each section path provided by only one source.
+         */
+        final Map<List<Object>, Backend> owners;
+
+        /**
+         * Values of each source that are overridden by other sources.
+         */
+        final List<Map<Object, Object>> shadowed;
+
+        /**
+         * Content of each source in the last load or save.
+         */
+        final List<Map<Object, Object>> contents;
+
+        State(Map<List<Object>, Backend> owners, List<Map<Object, Object>> shadowed, List<Map<Object, Object>> contents) {
+            this.owners = owners;
+            this.shadowed = shadowed;
+            this.contents = contents;
+        }
+    }
+}
@@ -29,21 +29,29 @@ package com.github.jonathanxd.config.backend;
 
 import com.github.jonathanxd.iutils.box.IMutableBox;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 
 /**
  * A base interface that provides {@link Reader} and {@link Writer} to read and write
@@ -87,6 +95,37 @@ public interface ConfigIO {
         return ConfigIO.path(path, charset, StandardOpenOption.READ, StandardOpenOption.WRITE);
     }
 
+    /**
+     * Creates a {@link ConfigIO} that provides {@code nio path} reader and an atomic writer.
+     *
+     * Configuration is written to a temporary file in the same directory of {@code path}, which is
+     * then atomically moved to {@code path} when the writer is closed, so readers of {@code path}
+     * never see a partially written configuration.
+     *
+     * @param path    Nio path.
+     * @param charset Charset to encode characters.
+     * @param sync    Whether written contents should be forced to the storage device before they
+     *                are moved to {@code path}.
+     * @return {@link ConfigIO} that provides {@code nio path} reader and atomic writer.
+     * @see AtomicWriter
+     */
+    static ConfigIO atomicPath(Path path, Charset charset, boolean sync) {
+        return new AtomicNioIO(path, charset, sync);
+    }
+
+    /**
+     * Creates a {@link ConfigIO} that provides {@code nio path} reader and an atomic writer that
+     * forces written contents to the storage device.
+     *
+     * @param path    Nio path.
+     * @param charset Charset to encode characters.
+     * @return {@link ConfigIO} that provides {@code nio path} reader and atomic writer.
+     * @see #atomicPath(Path, Charset, boolean)
+     */
+    static ConfigIO atomicPath(Path path, Charset charset) {
+        return ConfigIO.atomicPath(path, charset, true);
+    }
+
     /**
      * Creates a {@link ConfigIO} that reads and write to a string.
      *
@@ -126,6 +165,67 @@ public interface ConfigIO {
      */
     Writer openWriter() throws IOException;
 
+    /**
+     * Gets the path of the file that this {@link ConfigIO} reads and writes, if this {@link
+     * ConfigIO} is backed by a file.
+     *
+     * @return Path of the file that this {@link ConfigIO} reads and writes, or {@link
+     * Optional#empty()} if this {@link ConfigIO} is not backed by a file.
+     */
+    default Optional<Path> getPath() {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the charset of configuration contents, if this {@link ConfigIO} encodes characters.
+     *
+     * @return Charset of configuration contents, or {@link Optional#empty()} if this {@link
+     * ConfigIO} does not encode characters.
+     */
+    default Optional<Charset> getCharset() {
+        return Optional.empty();
+    }
+
+    /**
+     * Opens configuration contents as bytes encoded with {@link #getCharset() charset}, so backends
+     * which are able to parse bytes do not need to decode characters.
+     *
+     * Implementations backed by files memory-map large files. Contents of a mapped file must not be
+     * truncated while the buffer is being read.
+     *
+     * @return Buffer of configuration contents, or {@link Optional#empty()} if this {@link
+     * ConfigIO} does not provide bytes.
+     * @throws IOException Thrown by implementation in some cases, such as file not existing.
+     */
+    default Optional<ByteBuffer> openBuffer() throws IOException {
+        return Optional.empty();
+    }
+
+    /**
+     * Reads the contents of {@code path} into a buffer, mapping the file if it is large.
+     *
+     * @param path Path of file.
+     * @return Buffer of file contents, or {@link Optional#empty()} if file is too large to be
+     * mapped.
+     * @throws IOException If file cannot be read.
+     */
+    private static Optional<ByteBuffer> readBuffer(Path path) throws IOException {
+        // Below this size, a read is cheaper than setting up a mapping.
+        final long mapThreshold = 1L << 20;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size > Integer.MAX_VALUE)
+                return Optional.empty();
+
+            if (size >= mapThreshold)
+                return Optional.of(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+
+        return Optional.of(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
     class FileIO implements ConfigIO {
 
         private final File file;
@@ -145,6 +245,21 @@ public interface ConfigIO {
         public Writer openWriter() throws IOException {
             return new OutputStreamWriter(new FileOutputStream(this.file), this.charset);
         }
+
+        @Override
+        public Optional<Path> getPath() {
+            return Optional.of(this.file.toPath());
+        }
+
+        @Override
+        public Optional<Charset> getCharset() {
+            return Optional.of(this.charset);
+        }
+
+        @Override
+        public Optional<ByteBuffer> openBuffer() throws IOException {
+            return ConfigIO.readBuffer(this.file.toPath());
+        }
     }
 
     class NioIO implements ConfigIO {
@@ -168,6 +283,237 @@ public interface ConfigIO {
         public Writer openWriter() throws IOException {
             return Files.newBufferedWriter(this.path, this.charset, this.openOptions);
         }
+
+        @Override
+        public Optional<Path> getPath() {
+            return Optional.of(this.path);
+        }
+
+        @Override
+        public Optional<Charset> getCharset() {
+            return Optional.of(this.charset);
+        }
+
+        @Override
+        public Optional<ByteBuffer> openBuffer() throws IOException {
+            return ConfigIO.readBuffer(this.path);
+        }
+    }
+
+    class AtomicNioIO implements ConfigIO {
+
+        private final Path path;
+        private final Charset charset;
+        private final boolean sync;
+
+        AtomicNioIO(Path path, Charset charset, boolean sync) {
+            this.path = path;
+            this.charset = charset;
+            this.sync = sync;
+        }
+
+        @Override
+        public Reader openReader() throws IOException {
+            return Files.newBufferedReader(this.path, this.charset);
+        }
+
+        @Override
+        public AtomicWriter openWriter() throws IOException {
+            return new AtomicWriter(this.path, this.charset, this.sync);
+        }
+
+        @Override
+        public Optional<Path> getPath() {
+            return Optional.of(this.path);
+        }
+
+        @Override
+        public Optional<Charset> getCharset() {
+            return Optional.of(this.charset);
+        }
+
+        @Override
+        public Optional<ByteBuffer> openBuffer() throws IOException {
+            return ConfigIO.readBuffer(this.path);
+        }
+    }
+
+    /**
+     * Writer that writes to a temporary file and moves it to target file when closed.
+     *
+     * If writing fails, {@link #discard()} should be called to delete the temporary file without
+     * replacing the target file.
+     *
+     * @see AtomicOutputStream
+     */
+    final class AtomicWriter extends Writer {
+
+        private final AtomicOutputStream out;
+        private final Writer writer;
+        private boolean closed;
+
+        AtomicWriter(Path target, Charset charset, boolean sync) throws IOException {
+            this.out = new AtomicOutputStream(target, sync);
+            this.writer = new BufferedWriter(new OutputStreamWriter(this.out, charset));
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            this.writer.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            this.writer.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.writer.flush();
+        }
+
+        /**
+         * Discards written contents, deleting the temporary file and keeping the target file
+         * untouched.
+         *
+         * @throws IOException If temporary file could not be deleted.
+         */
+        public void discard() throws IOException {
+            this.closed = true;
+            this.out.discard();
+        }
+
+        /**
+         * Flushes written contents and atomically moves the temporary file to target file.
+         *
+         * @throws IOException If contents could not be written or moved.
+         */
+        @Override
+        public void close() throws IOException {
+            if (this.closed)
+                return;
+
+            this.closed = true;
+
+            try {
+                this.writer.flush();
+            } catch (IOException e) {
+                this.out.discard();
+                throw e;
+            }
+
+            this.out.close();
+        }
+    }
+
+    /**
+     * Output stream that writes to a temporary file and moves it to target file when closed.
+     *
+     * If writing fails, {@link #discard()} should be called to delete the temporary file without
+     * replacing the target file.
+     */
+    final class AtomicOutputStream extends OutputStream {
+
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final boolean sync;
+        private boolean closed;
+
+        /**
+         * Creates an output stream that atomically replaces {@code target} when closed.
+         *
+         * @param target Path of file to replace.
+         * @param sync   Whether written contents should be forced to the storage device before
+         *               they are moved to {@code target}.
+         * @throws IOException If temporary file could not be created.
+         */
+        public AtomicOutputStream(Path target, boolean sync) throws IOException {
+            Path absolute = target.toAbsolutePath();
+            this.target = absolute;
+            this.temp = absolute.resolveSibling("." + absolute.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+            this.channel = FileChannel.open(this.temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.out = Channels.newOutputStream(this.channel);
+            this.sync = sync;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        /**
+         * Discards written contents, deleting the temporary file and keeping the target file
+         * untouched.
+         *
+         * @throws IOException If temporary file could not be deleted.
+         */
+        public void discard() throws IOException {
+            if (this.closed)
+                return;
+
+            this.closed = true;
+
+            try {
+                this.channel.close();
+            } finally {
+                Files.deleteIfExists(this.temp);
+            }
+        }
+
+        /**
+         * Atomically moves the temporary file to target file.
+         *
+         * @throws IOException If contents could not be written or moved.
+         */
+        @Override
+        public void close() throws IOException {
+            if (this.closed)
+                return;
+
+            try {
+                if (this.sync)
+                    this.channel.force(true);
+
+                this.channel.close();
+            } catch (IOException e) {
+                this.discard();
+                throw e;
+            }
+
+            this.closed = true;
+
+            try {
+                try {
+                    Files.move(this.temp, this.target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(this.temp, this.target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(this.temp);
+                throw e;
+            }
+
+            if (this.sync)
+                AtomicOutputStream.syncDirectory(this.target.getParent());
+        }
+
+        private static void syncDirectory(Path directory) {
+            if (directory == null)
+                return;
+
+            // Makes the rename durable, not supported by all platforms.
+            try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException ignored) {
+            }
+        }
     }
 
     class StringIO implements ConfigIO {
@@ -0,0 +1,48 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+/**
+ * A value of the configuration tree which is parsed only when accessed.
+ *
+ * {@link StreamingBackend Streaming backends} may report lazy values through {@link
+ * TreeHandler#value(Object)} instead of reporting the events of a section, usually after indexing
+ * where the section is located in the document. {@link com.github.jonathanxd.config.Config}
+ * keeps lazy values of top-level sections in its tree and replaces them with the parsed section on
+ * first access, other {@link TreeBuilder tree builders} parse them immediately.
+ */
+public interface LazyValue {
+
+    /**
+     * Parses the value, reporting it to {@code handler} as a single value (a map, a list or a scalar
+     * value).
+     *
+     * @param handler Handler of value events.
+     */
+    void load(TreeHandler handler);
+}
@@ -0,0 +1,54 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+/**
+ * A {@link Backend} which is able to load and save configuration as a stream of {@link TreeHandler
+ * events}, so the configuration tree is built directly by the frontend instead of being
+ * materialized by the backend and then copied, and saved directly from the frontend tree.
+ */
+public interface StreamingBackend extends Backend {
+
+    /**
+     * Loads configuration, reporting the document to {@code handler}.
+     *
+     * @param handler Handler of configuration document.
+     */
+    void load(TreeHandler handler);
+
+    /**
+     * Saves configuration from {@code source}.
+     *
+     * The default implementation saves a {@link TreeSource#snapshot() snapshot} of {@code source}.
+     *
+     * @param source Source of configuration tree.
+     */
+    default void save(TreeSource source) {
+        this.save(source.snapshot());
+    }
+}
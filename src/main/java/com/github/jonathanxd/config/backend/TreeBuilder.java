@@ -0,0 +1,215 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+import com.github.jonathanxd.config.StorageMode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TreeHandler} which builds the configuration tree from document events, creating
+ * containers through a {@link StorageMode}.
+ *
+ * {@link LazyValue Lazy values} are parsed as soon as they are reported, unless the builder is
+ * created to keep them.
+ */
+public final class TreeBuilder implements TreeHandler {
+
+    private final StorageMode mode;
+    private final boolean keepLazy;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private Object key;
+    private boolean hasKey;
+    private Map<Object, Object> root;
+
+    /**
+     * Creates a tree builder.
+     *
+     * @param mode Mode used to create maps and lists.
+     */
+    public TreeBuilder(StorageMode mode) {
+        this(mode, false);
+    }
+
+    /**
+     * Creates a tree builder.
+     *
+     * @param mode     Mode used to create maps and lists.
+     * @param keepLazy Whether {@link LazyValue lazy values} are stored as they are in the tree,
+     *                 instead of being parsed.
+     */
+    public TreeBuilder(StorageMode mode, boolean keepLazy) {
+        this.mode = mode;
+        this.keepLazy = keepLazy;
+    }
+
+    /**
+     * Parses {@code value} into containers created by {@code mode}.
+     *
+     * @param mode  Mode used to create maps and lists.
+     * @param value Lazy value to parse.
+     * @return Parsed value.
+     */
+    public static Object build(StorageMode mode, LazyValue value) {
+        TreeBuilder builder = new TreeBuilder(mode);
+        builder.startMap();
+        builder.key("value");
+        value.load(builder);
+        builder.endMap();
+        return builder.getRoot().get("value");
+    }
+
+    @Override
+    public void startMap() {
+        if (this.frames.isEmpty() && this.root != null)
+            throw new IllegalStateException("Document has more than one root.");
+
+        this.frames.push(new Frame(this.mode.newMap(), this.takeKey()));
+    }
+
+    @Override
+    public void key(Object key) {
+        if (!(this.current() instanceof Map<?, ?>))
+            throw new IllegalStateException("Key '" + key + "' outside of a map.");
+
+        if (this.hasKey)
+            throw new IllegalStateException("Key '" + key + "' declared after key '" + this.key + "' without a value.");
+
+        this.key = key;
+        this.hasKey = true;
+    }
+
+    @Override
+    public void endMap() {
+        this.end(Map.class);
+    }
+
+    @Override
+    public void startList() {
+        if (this.frames.isEmpty())
+            throw new IllegalStateException("Root of document must be a map.");
+
+        // Elements are collected in an ArrayList (the list type of DEFAULT mode) and then handed
+        // to other modes at once, so copy-on-write lists are not copied for every element.
+        this.frames.push(new Frame(new ArrayList<>(), this.takeKey()));
+    }
+
+    @Override
+    public void endList() {
+        this.end(List.class);
+    }
+
+    @Override
+    public void value(Object value) {
+        if (value instanceof LazyValue && !this.keepLazy) {
+            ((LazyValue) value).load(this);
+            return;
+        }
+
+        if (this.frames.isEmpty())
+            throw new IllegalStateException("Root of document must be a map.");
+
+        this.add(this.takeKey(), value);
+    }
+
+    /**
+     * Gets the root map of the built tree.
+     *
+     * @return Root map of the built tree.
+     * @throws IllegalStateException If document is not complete.
+     */
+    public Map<Object, Object> getRoot() {
+        if (this.root == null || !this.frames.isEmpty())
+            throw new IllegalStateException("Document is not complete.");
+
+        return this.root;
+    }
+
+    private Object current() {
+        Frame frame = this.frames.peek();
+        return frame == null ? null : frame.container;
+    }
+
+    private Object takeKey() {
+        Object container = this.current();
+
+        if (container instanceof Map<?, ?> && !this.hasKey)
+            throw new IllegalStateException("Value without key.");
+
+        Object key = this.key;
+        this.key = null;
+        this.hasKey = false;
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void end(Class<?> type) {
+        Frame frame = this.frames.peek();
+
+        if (frame == null || !type.isInstance(frame.container))
+            throw new IllegalStateException("Unbalanced end of " + type.getSimpleName() + ".");
+
+        if (this.hasKey)
+            throw new IllegalStateException("Key '" + this.key + "' without a value.");
+
+        this.frames.pop();
+
+        Object value = frame.container instanceof List<?> && this.mode != StorageMode.DEFAULT
+                ? this.mode.newList((List<Object>) frame.container)
+                : frame.container;
+
+        if (this.frames.isEmpty())
+            this.root = (Map<Object, Object>) value;
+        else
+            this.add(frame.key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(Object key, Object value) {
+        Object container = this.current();
+
+        if (container instanceof Map<?, ?>)
+            ((Map<Object, Object>) container).put(key, value);
+        else
+            ((List<Object>) container).add(value);
+    }
+
+    private static final class Frame {
+        private final Object container;
+        private final Object key;
+
+        Frame(Object container, Object key) {
+            this.container = container;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+/**
+ * Receives configuration tree events in document order.
+ *
+ * A document is a sequence of events that describes a single root map: {@link #startMap()}, then
+ * a {@link #key(Object)} followed by a value for every entry of the map, then {@link #endMap()}. A
+ * value is either a {@link #value(Object) scalar value}, a map described in the same way, or a
+ * list, described by {@link #startList()}, zero or more values and {@link #endList()}.
+ *
+ * @see StreamingBackend
+ * @see TreeBuilder
+ */
+public interface TreeHandler {
+
+    /**
+     * Starts a map, the root map or a value of current map or list.
+     */
+    void startMap();
+
+    /**
+     * Declares the key of next value of current map.
+     *
+     * @param key Key of next value.
+     */
+    void key(Object key);
+
+    /**
+     * Ends current map.
+     */
+    void endMap();
+
+    /**
+     * Starts a list as value of current map or list.
+     */
+    void startList();
+
+    /**
+     * Ends current list.
+     */
+    void endList();
+
+    /**
+     * Adds a scalar value to current map or list.
+     *
+     * @param value Scalar value (may be null).
+     */
+    void value(Object value);
+}
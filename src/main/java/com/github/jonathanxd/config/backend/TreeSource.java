@@ -0,0 +1,145 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.backend;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Source of a configuration tree to be saved by a {@link StreamingBackend}.
+ *
+ * Streaming backends render the document while the tree is {@link #accept(TreeHandler) walked},
+ * instead of rendering a copy of the tree. Backends which are not able to render events may still
+ * use a {@link #snapshot() snapshot}.
+ */
+public interface TreeSource {
+
+    /**
+     * Reports the configuration tree to {@code handler}. Entries of each map and list are copied
+     * while the map or list is locked, so sections are never reported while they are being
+     * modified, and the lock is released before entries are reported, so the configuration is not
+     * blocked while the document is rendered.
+     *
+     * @param handler Handler of configuration document.
+     */
+    void accept(TreeHandler handler);
+
+    /**
+     * Creates a snapshot of the configuration tree.
+     *
+     * @return Unmodifiable snapshot of the configuration tree.
+     */
+    Map<Object, Object> snapshot();
+
+    /**
+     * Creates a source which walks {@code map} and uses {@code map} itself as snapshot.
+     *
+     * @param map Configuration tree.
+     * @return Source of {@code map}.
+     */
+    static TreeSource of(Map<?, ?> map) {
+        return TreeSource.of(map, () -> Collections.unmodifiableMap(map));
+    }
+
+    /**
+     * Creates a source which walks {@code map} and creates snapshots with {@code snapshot}.
+     *
+     * @param map      Configuration tree.
+     * @param snapshot Snapshot factory.
+     * @return Source of {@code map}.
+     */
+    static TreeSource of(Map<?, ?> map, Supplier<Map<Object, Object>> snapshot) {
+        return new TreeSource() {
+            @Override
+            public void accept(TreeHandler handler) {
+                TreeSource.walk(map, handler);
+            }
+
+            @Override
+            public Map<Object, Object> snapshot() {
+                return snapshot.get();
+            }
+        };
+    }
+
+    /**
+     * Reports {@code value} to {@code handler}, walking maps and lists and loading {@link LazyValue
+     * lazy values}.
+     *
+     * @param value   Value to report.
+     * @param handler Handler of value events.
+     */
+    static void walk(Object value, TreeHandler handler) {
+        if (value instanceof Map<?, ?>) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Object[] entries;
+            int size = 0;
+
+            // Shallow copy, the lock must not be held while the handler renders or writes
+            synchronized (map) {
+                entries = new Object[map.size() * 2];
+
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    entries[size++] = entry.getKey();
+                    entries[size++] = entry.getValue();
+                }
+            }
+
+            handler.startMap();
+
+            for (int i = 0; i < size; i += 2) {
+                handler.key(entries[i]);
+                TreeSource.walk(entries[i + 1], handler);
+            }
+
+            handler.endMap();
+        } else if (value instanceof List<?>) {
+            List<?> list = (List<?>) value;
+            Object[] elements;
+
+            synchronized (list) {
+                elements = list.toArray();
+            }
+
+            handler.startList();
+
+            for (Object element : elements) {
+                TreeSource.walk(element, handler);
+            }
+
+            handler.endList();
+        } else if (value instanceof LazyValue) {
+            // Not parsed yet, so it cannot have been modified.
+            ((LazyValue) value).load(handler);
+        } else {
+            handler.value(value);
+        }
+    }
+}
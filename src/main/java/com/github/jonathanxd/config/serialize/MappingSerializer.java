@@ -0,0 +1,475 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config.serialize;
+
+import com.github.jonathanxd.config.Key;
+import com.github.jonathanxd.config.SerializationException;
+import com.github.jonathanxd.config.Storage;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Serializer of records, interfaces and plain objects that maps each property to an entry of a
+ * configuration section.
+ *
+ * Properties are resolved once, when the serializer is created, and accessed through {@link
+ * MethodHandle method handles}: record components through their accessors and canonical
+ * constructor, interfaces through their abstract no-arg methods (de-serialized objects are
+ * immutable {@link Proxy proxies}), and plain objects through their non-static and non-transient
+ * fields (including fields of super classes) and no-arg constructor.
+ *
+ * Final fields cannot be set after construction, so plain objects with final fields are
+ * constructed like records instead: through a constructor that receives all mapped fields in
+ * declaration order (fields of super classes first).
+ *
+ * Primitive and {@link String} properties are read from and written to the section map directly,
+ * properties of types mapped by other {@link MappingSerializer} are mapped recursively, and all
+ * other properties are serialized through {@link Serializers}.
+ *
+ * <pre>{@code
+ *      record Server(String host, int port, List<String> tags) {}
+ *
+ *      config.getSerializers().registerMappingSerializer(Server.class);
+ *      Key<Server> server = config.getRootKey().getKey("server", Server.class);
+ * }</pre>
+ *
+ * @param <T> Object type.
+ */
+public final class MappingSerializer<T> implements Serializer<T> {
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType NO_ARG_CONSTRUCTOR = MethodType.methodType(Object.class);
+
+    /**
+     * Type of mapped objects.
+     */
+    private final Class<T> type;
+
+    /**
+     * Properties in declaration order.
+     */
+    private final Property[] properties;
+
+    /**
+     * Constructor, receives values of all properties for records and plain objects with final
+     * fields and no arguments for other plain objects, null for interfaces.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Whether objects are constructed with values of all properties instead of being mutated.
+     */
+    private final boolean immutable;
+
+    /**
+     * Creates a mapping serializer of {@code type}.
+     *
+     * @param type Type of mapped objects.
+     * @throws IllegalArgumentException If {@code type} is not a record or interface and has no
+     *                                  no-arg constructor, or has final fields and no constructor
+     *                                  receiving all fields, or if its members are not accessible.
+     */
+    public MappingSerializer(Class<T> type) {
+        this(type, MethodHandles.lookup());
+    }
+
+    /**
+     * Creates a mapping serializer of {@code type} accessing members through {@code lookup}.
+     *
+     * @param type   Type of mapped objects.
+     * @param lookup Lookup with access to private members of {@code type}, required when
+     *               {@code type} is in a module that is not open to this library.
+     * @throws IllegalArgumentException If {@code type} is not a record or interface and has no
+     *                                  no-arg constructor, or has final fields and no constructor
+     *                                  receiving all fields, or if its members are not accessible.
+     */
+    public MappingSerializer(Class<T> type, MethodHandles.Lookup lookup) {
+        this.type = type;
+        boolean immutable = type.isRecord() || type.isInterface();
+
+        try {
+            MethodHandles.Lookup privateLookup = MethodHandles.privateLookupIn(type, lookup);
+            List<Property> properties = new ArrayList<>();
+
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+
+                for (int i = 0; i < components.length; i++) {
+                    RecordComponent component = components[i];
+                    parameterTypes[i] = component.getType();
+
+                    properties.add(new Property(component.getName(),
+                            component.getType(),
+                            MappingSerializer.toTypeInfo(component.getGenericType()),
+                            privateLookup.unreflect(component.getAccessor()).asType(GETTER),
+                            null));
+                }
+
+                Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+
+                this.constructor = privateLookup.unreflectConstructor(constructor)
+                        .asSpreader(Object[].class, components.length)
+                        .asType(CONSTRUCTOR);
+            } else if (type.isInterface()) {
+                Method[] methods = type.getMethods();
+                Arrays.sort(methods, Comparator.comparing(Method::getName));
+
+                for (Method method : methods) {
+                    if (Modifier.isStatic(method.getModifiers())
+                            || method.isDefault()
+                            || method.getParameterCount() != 0
+                            || method.getReturnType() == void.class)
+                        continue;
+
+                    properties.add(new Property(method.getName(),
+                            method.getReturnType(),
+                            MappingSerializer.toTypeInfo(method.getGenericReturnType()),
+                            privateLookup.unreflect(method).asType(GETTER),
+                            null));
+                }
+
+                this.constructor = null;
+            } else {
+                List<Class<?>> hierarchy = new ArrayList<>();
+                List<Class<?>> fieldTypes = new ArrayList<>();
+                Field finalField = null;
+
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    hierarchy.add(0, current);
+                }
+
+                for (Class<?> current : hierarchy) {
+                    MethodHandles.Lookup currentLookup = current == type
+                            ? privateLookup
+                            : MethodHandles.privateLookupIn(current, lookup);
+
+                    for (Field field : current.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())
+                            continue;
+
+                        boolean isFinal = Modifier.isFinal(modifiers);
+
+                        if (isFinal && finalField == null)
+                            finalField = field;
+
+                        fieldTypes.add(field.getType());
+                        properties.add(new Property(field.getName(),
+                                field.getType(),
+                                MappingSerializer.toTypeInfo(field.getGenericType()),
+                                currentLookup.unreflectGetter(field).asType(GETTER),
+                                isFinal ? null : currentLookup.unreflectSetter(field).asType(SETTER)));
+                    }
+                }
+
+                if (finalField != null) {
+                    Constructor<T> constructor;
+
+                    try {
+                        constructor = type.getDeclaredConstructor(fieldTypes.toArray(new Class<?>[0]));
+                    } catch (NoSuchMethodException e) {
+                        throw new IllegalArgumentException("Type '" + type + "' has final field '" + finalField.getName()
+                                + "' and no constructor receiving all fields in declaration order: " + fieldTypes + ".", e);
+                    }
+
+                    this.constructor = privateLookup.unreflectConstructor(constructor)
+                            .asSpreader(Object[].class, fieldTypes.size())
+                            .asType(CONSTRUCTOR);
+                    immutable = true;
+                } else {
+                    this.constructor = privateLookup.unreflectConstructor(type.getDeclaredConstructor())
+                            .asType(NO_ARG_CONSTRUCTOR);
+                }
+            }
+
+            this.properties = properties.toArray(new Property[0]);
+            this.immutable = immutable;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Type '" + type + "' is not a record or interface and has no no-arg constructor.", e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Members of type '" + type + "' are not accessible.", e);
+        }
+    }
+
+    @Override
+    public void serialize(T value, Key<T> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
+        storage.pushValue(key, this.toMap(value, key, serializers));
+    }
+
+    @Override
+    public T deserialize(Key<T> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
+        Object value = storage.fetchValue(key);
+
+        if (!(value instanceof Map<?, ?>))
+            return null;
+
+        return this.fromMap((Map<?, ?>) value, key, serializers);
+    }
+
+    /**
+     * Gets the type of mapped objects.
+     *
+     * @return Type of mapped objects.
+     */
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    private Map<Object, Object> toMap(Object value, Key<?> key, Serializers serializers) {
+        Map<Object, Object> map = key.getConfig().getStorageMode().newMap();
+        Map<String, Object> temp = null;
+        Storage scratch = null;
+
+        for (Property property : this.properties) {
+            Object propertyValue = property.get(value);
+
+            if (propertyValue == null)
+                continue;
+
+            if (property.converter == null) {
+                MappingSerializer<?> mapping = MappingSerializer.find(property.typeInfo, serializers);
+
+                if (mapping != null) {
+                    propertyValue = mapping.toMap(propertyValue, key, serializers);
+                } else {
+                    if (scratch == null) {
+                        temp = new LinkedHashMap<>();
+                        scratch = Storage.createMapStorage(key, temp);
+                    }
+
+                    propertyValue = serializers.serializeUncheckedAndGet(propertyValue, key.getAs(property.typeInfo, scratch));
+                    temp.clear();
+                }
+            }
+
+            map.put(property.name, propertyValue);
+        }
+
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T fromMap(Map<?, ?> map, Key<?> key, Serializers serializers) {
+        boolean immutable = this.immutable;
+        Object[] arguments = immutable ? new Object[this.properties.length] : null;
+        Object object = immutable ? null : MappingSerializer.invoke(this.constructor, null);
+        Storage scratch = null;
+
+        for (int i = 0; i < this.properties.length; i++) {
+            Property property = this.properties[i];
+            Object value = map.get(property.name);
+
+            if (value != null) {
+                if (property.converter != null) {
+                    value = property.converter.apply(value);
+                } else {
+                    MappingSerializer<?> mapping = MappingSerializer.find(property.typeInfo, serializers);
+
+                    if (mapping != null) {
+                        value = value instanceof Map<?, ?> ? mapping.fromMap((Map<?, ?>) value, key, serializers) : null;
+                    } else {
+                        if (scratch == null)
+                            scratch = Storage.createMapStorage(key);
+
+                        Key<?> propertyKey = key.getAs(property.typeInfo, scratch);
+                        scratch.pushValue(propertyKey, value);
+                        value = serializers.deserialize(propertyKey);
+                    }
+                }
+            }
+
+            if (immutable) {
+                arguments[i] = value != null ? value : property.defaultValue;
+            } else if (value != null) {
+                property.set(object, value);
+            }
+        }
+
+        if (!immutable)
+            return (T) object;
+
+        if (this.constructor == null)
+            return (T) Proxy.newProxyInstance(this.type.getClassLoader(),
+                    new Class<?>[]{this.type},
+                    new ProxyHandler(this.type, this.properties, arguments));
+
+        return (T) MappingSerializer.invoke(this.constructor, arguments);
+    }
+
+    private static MappingSerializer<?> find(TypeInfo<?> typeInfo, Serializers serializers) {
+        Optional<? extends Serializer<?>> serializer = serializers.findSerializer(typeInfo);
+
+        return serializer.isPresent() && serializer.get() instanceof MappingSerializer<?>
+                ? (MappingSerializer<?>) serializer.get()
+                : null;
+    }
+
+    private static Object invoke(MethodHandle constructor, Object[] arguments) {
+        try {
+            return arguments == null
+                    ? (Object) constructor.invokeExact()
+                    : (Object) constructor.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SerializationException(t);
+        }
+    }
+
+    private static TypeInfo<?> toTypeInfo(Type type) {
+        if (type instanceof Class<?>)
+            return TypeInfo.of((Class<?>) type);
+
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            TypeInfo<?>[] parameters = new TypeInfo<?>[arguments.length];
+
+            for (int i = 0; i < arguments.length; i++) {
+                parameters[i] = MappingSerializer.toTypeInfo(arguments[i]);
+            }
+
+            return TypeInfo.builderOf((Class<?>) ((ParameterizedType) type).getRawType()).of(parameters).buildGeneric();
+        }
+
+        if (type instanceof WildcardType)
+            return MappingSerializer.toTypeInfo(((WildcardType) type).getUpperBounds()[0]);
+
+        return TypeInfo.of(Object.class);
+    }
+
+    private static final class Property {
+        final String name;
+        final TypeInfo<?> typeInfo;
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        /**
+         * Converter of stored values of primitive and string properties, null for other
+         * properties.
+         */
+        final Function<Object, Object> converter;
+
+        /**
+         * Value of absent property, zero for primitive properties.
+         */
+        final Object defaultValue;
+
+        Property(String name, Class<?> type, TypeInfo<?> typeInfo, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.typeInfo = typeInfo;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = Serializers.PrimitiveSerializer.getConverter(type);
+            this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+
+        Object get(Object object) {
+            try {
+                return (Object) this.getter.invokeExact(object);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new SerializationException(t);
+            }
+        }
+
+        void set(Object object, Object value) {
+            try {
+                this.setter.invokeExact(object, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new SerializationException(t);
+            }
+        }
+    }
+
+    /**
+     * Handler of interface proxies, returns property values and invokes default methods.
+     */
+    private static final class ProxyHandler implements InvocationHandler {
+        private final Class<?> type;
+        private final Map<String, Object> values;
+
+        ProxyHandler(Class<?> type, Property[] properties, Object[] values) {
+            this.type = type;
+            this.values = new HashMap<>(properties.length * 2);
+
+            for (int i = 0; i < properties.length; i++) {
+                this.values.put(properties[i].name, values[i]);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Only equals, hashCode and toString of Object are dispatched to handler
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return this.type.getSimpleName() + this.values;
+                }
+            }
+
+            if (method.isDefault())
+                return InvocationHandler.invokeDefault(proxy, method, args);
+
+            return this.values.get(method.getName());
+        }
+    }
+}
@@ -28,9 +28,12 @@
 package com.github.jonathanxd.config.serialize;
 
 import com.github.jonathanxd.config.CommonTypes;
+import com.github.jonathanxd.config.ConfigMetrics;
 import com.github.jonathanxd.config.Key;
 import com.github.jonathanxd.config.KeySpec;
+import com.github.jonathanxd.config.Primitives;
 import com.github.jonathanxd.config.Storage;
+import com.github.jonathanxd.config.UnsupportedValueTypeException;
 import com.github.jonathanxd.iutils.matching.When;
 import com.github.jonathanxd.iutils.text.ArgsAppliedText;
 import com.github.jonathanxd.iutils.text.CapitalizeComponent;
@@ -55,8 +58,11 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Serializer manager. We recommend to not call {@link Serializers} function directly from {@link
@@ -102,6 +108,39 @@ public final class Serializers {
      */
     private final Map<TypeInfo<?>, Serializer<?>> serializerMap = new HashMap<>();
 
+    /**
+     * Resolved serializers by looked up type. Missing serializers are cached as {@link
+     * Optional#empty()} and serializers resolved from {@link #GLOBAL} are cached as well, so a
+     * resolution only scans {@link #serializerMap} once per type.
+     */
+    private final Map<TypeInfo<?>, Optional<Serializer<?>>> resolutionCache = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented every time a serializer is registered.
+     */
+    private volatile int generation;
+
+    /**
+     * {@link #generation} of {@link #GLOBAL} seen by {@link #resolutionCache}, used to invalidate
+     * cached resolutions when a serializer is registered in {@link #GLOBAL}.
+     */
+    private volatile int globalGeneration;
+
+    /**
+     * Metrics sink of serializer lookups.
+     */
+    private volatile ConfigMetrics metrics = ConfigMetrics.NONE;
+
+    /**
+     * Sets the metrics sink which receives cache hits and misses of {@link
+     * #findSerializer(TypeInfo)}.
+     *
+     * @param metrics Metrics sink.
+     */
+    public void setMetrics(ConfigMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
     /**
      * Returns true if a serializer of provided {@link TypeInfo type information} is present, false
      * otherwise.
@@ -111,8 +150,7 @@ public final class Serializers {
      * otherwise.
      */
     public boolean hasSerializer(TypeInfo<?> typeInfo) {
-        return this.findSerializer(typeInfo).isPresent()
-                || (this != Serializers.GLOBAL && Serializers.GLOBAL.hasSerializer(typeInfo));
+        return this.findSerializer(typeInfo).isPresent();
     }
 
     /**
@@ -217,7 +255,7 @@ public final class Serializers {
      * @param <T>        Type of the value.
      */
     public <T> void register(TypeInfo<T> typeInfo, Serializer<T> serializer) {
-        this.getSerializerMap().put(typeInfo, serializer);
+        this.registerUnchecked(typeInfo, serializer);
     }
 
     /**
@@ -227,7 +265,17 @@ public final class Serializers {
      * @param <T>      Enum type.
      */
     public <T extends Enum<T>> void registerEnumSerializer(TypeInfo<T> typeInfo) {
-        this.getSerializerMap().put(typeInfo, new EnumSerializer<>());
+        this.registerUnchecked(typeInfo, new EnumSerializer<>());
+    }
+
+    /**
+     * Register a {@link MappingSerializer} to serialize records or plain objects of type {@link T}.
+     *
+     * @param type Record or plain object type.
+     * @param <T>  Object type.
+     */
+    public <T> void registerMappingSerializer(Class<T> type) {
+        this.registerUnchecked(TypeInfo.of(type), new MappingSerializer<>(type));
     }
 
     /**
@@ -236,8 +284,9 @@ public final class Serializers {
      * @param typeInfo   Type of value that {@code serializer} can serialize and deserialize.
      * @param serializer Serializer.
      */
-    public void registerUnchecked(TypeInfo<?> typeInfo, Serializer serializer) {
+    public synchronized void registerUnchecked(TypeInfo<?> typeInfo, Serializer serializer) {
         this.getSerializerMap().put(typeInfo, serializer);
+        this.invalidate();
     }
 
     /**
@@ -246,26 +295,93 @@ public final class Serializers {
      * @param typeInfoIterable Iterable with all type info to register serializer to.
      * @param serializer       Serializer.
      */
-    public void registerAll(Iterable<TypeInfo<?>> typeInfoIterable, Serializer serializer) {
+    public synchronized void registerAll(Iterable<TypeInfo<?>> typeInfoIterable, Serializer serializer) {
         for (TypeInfo<?> info : typeInfoIterable) {
-            this.registerUnchecked(info, serializer);
+            this.getSerializerMap().put(info, serializer);
         }
 
+        this.invalidate();
     }
 
     /**
-     * Find the serializer of type {@link T}.
+     * Find the serializer of type {@link T}, falling back to {@link #GLOBAL} serializers.
+     *
+     * Resolutions are cached, so only the first lookup of a {@code typeInfo} scans the registered
+     * serializers, subsequent lookups (including lookups of types without serializer) are a single
+     * hash probe until a new serializer is registered.
      *
      * @param typeInfo Information about type {@link T}.
      * @param <T>      Type.
      * @return an Optional of the Serializer if found, or {@link Optional#empty()} otherwise.
      */
     @SuppressWarnings("unchecked")
-    private <T> Optional<Serializer<T>> findSerializer(TypeInfo<T> typeInfo) {
+    public <T> Optional<Serializer<T>> findSerializer(TypeInfo<T> typeInfo) {
 
         if (typeInfo == null)
             return Optional.empty();
 
+        if (this != Serializers.GLOBAL && this.globalGeneration != Serializers.GLOBAL.generation) {
+            synchronized (this) {
+                this.resolutionCache.clear();
+                this.globalGeneration = Serializers.GLOBAL.generation;
+            }
+        }
+
+        Optional<Serializer<?>> cached = this.resolutionCache.get(typeInfo);
+        ConfigMetrics metrics = this.metrics;
+
+        if (cached == null) {
+            if (metrics.isEnabled())
+                metrics.serializerCacheMiss(typeInfo);
+
+            cached = this.resolveAndCache(typeInfo);
+        } else if (metrics.isEnabled()) {
+            metrics.serializerCacheHit(typeInfo);
+        }
+
+        return (Optional<Serializer<T>>) (Optional<?>) cached;
+    }
+
+    /**
+     * Resolves the serializer of {@code typeInfo} and caches the result, the resolution is not
+     * cached if a serializer is registered while resolving.
+     *
+     * Generations are checked and the result is cached while holding the same lock as {@link
+     * #registerUnchecked(TypeInfo, Serializer) registrations} and {@link #GLOBAL} invalidations,
+     * so a registration can never happen between the check and the cache update.
+     *
+     * @param typeInfo Type to resolve serializer.
+     * @return Resolved serializer.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Serializer<?>> resolveAndCache(TypeInfo<?> typeInfo) {
+        int generation = this.generation;
+        int globalGeneration = Serializers.GLOBAL.generation;
+        Optional<Serializer<?>> resolved = (Optional<Serializer<?>>) (Optional<?>) this.resolveSerializer(typeInfo);
+
+        if (!resolved.isPresent() && this != Serializers.GLOBAL)
+            resolved = (Optional<Serializer<?>>) (Optional<?>) Serializers.GLOBAL.findSerializer(typeInfo);
+
+        synchronized (this) {
+            if (generation == this.generation
+                    && (this == Serializers.GLOBAL || (globalGeneration == this.globalGeneration && globalGeneration == Serializers.GLOBAL.generation)))
+                this.resolutionCache.put(typeInfo, resolved);
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Resolves the serializer of type {@link T} registered in this instance, without looking up in
+     * {@link #resolutionCache cache} nor in {@link #GLOBAL} serializers.
+     *
+     * @param typeInfo Information about type {@link T}.
+     * @param <T>      Type.
+     * @return an Optional of the Serializer if found, or {@link Optional#empty()} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Optional<Serializer<T>> resolveSerializer(TypeInfo<T> typeInfo) {
+
         Class<? extends T> aClass = typeInfo.getTypeClass();
 
         if (aClass.getTypeParameters().length > 0) {
@@ -283,12 +399,18 @@ public final class Serializers {
                 return Optional.of((Serializer<T>) entry.getValue());
         }
 
-        if (this != Serializers.GLOBAL)
-            return Serializers.GLOBAL.findSerializer(typeInfo);
-
         return Optional.empty();
     }
 
+    /**
+     * Invalidates cached resolutions of this instance, and of all other instances if this is the
+     * {@link #GLOBAL} instance.
+     */
+    private void invalidate() {
+        ++this.generation;
+        this.resolutionCache.clear();
+    }
+
     /**
      * Create exception of missing serializer of {@code key}.
      *
@@ -335,6 +457,42 @@ public final class Serializers {
 
     static class PrimitiveSerializer<T> implements Serializer<T> {
 
+        /**
+         * Converters of stored values to primitive type classes (and their boxed classes).
+         */
+        private static final Map<Class<?>, Function<Object, Object>> CONVERTERS = new HashMap<>();
+
+        static {
+            PrimitiveSerializer.register(Boolean.class, Boolean.TYPE, Primitives::toBoolean);
+            PrimitiveSerializer.register(Byte.class, Byte.TYPE, Primitives::toByte);
+            PrimitiveSerializer.register(Short.class, Short.TYPE, Primitives::toShort);
+            PrimitiveSerializer.register(Character.class, Character.TYPE, Primitives::toChar);
+            PrimitiveSerializer.register(Integer.class, Integer.TYPE, Primitives::toInt);
+            PrimitiveSerializer.register(Float.class, Float.TYPE, Primitives::toFloat);
+            PrimitiveSerializer.register(Long.class, Long.TYPE, Primitives::toLong);
+            PrimitiveSerializer.register(Double.class, Double.TYPE, Primitives::toDouble);
+            PrimitiveSerializer.CONVERTERS.put(String.class, Object::toString);
+        }
+
+        /**
+         * Gets the converter of stored values to {@code type}.
+         *
+         * @param type Primitive type, boxed type or {@link String}.
+         * @return Converter of stored values to {@code type}, or null if {@code type} is not a
+         * primitive type, boxed type or {@link String}.
+         */
+        static Function<Object, Object> getConverter(Class<?> type) {
+            return PrimitiveSerializer.CONVERTERS.get(type);
+        }
+
+        private static void register(Class<?> boxed, Class<?> primitive, Function<Object, Object> converter) {
+            // Values already stored with the expected type are returned as is
+            Function<Object, Object> function = value -> boxed.isInstance(value) ? value : converter.apply(value);
+
+            PrimitiveSerializer.CONVERTERS.put(boxed, function);
+            PrimitiveSerializer.CONVERTERS.put(primitive, function);
+        }
+
         @Override
         public void serialize(T value, Key<T> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
             storage.pushValue(key, value);
@@ -348,19 +506,12 @@ public final class Serializers {
             if (value == null)
                 return null;
 
-            String s = value.toString();
-
-            return (T) When.When(typeInfo,
-                    When.Matches(CommonTypes::isBoolean, t -> Boolean.valueOf(s)),
-                    When.Matches(CommonTypes::isByte, t -> Byte.valueOf(s)),
-                    When.Matches(CommonTypes::isShort, t -> Short.valueOf(s)),
-                    When.Matches(CommonTypes::isChar, t -> s.charAt(0)),
-                    When.Matches(CommonTypes::isInteger, t -> Integer.valueOf(s)),
-                    When.Matches(CommonTypes::isFloat, t -> Float.valueOf(s)),
-                    When.Matches(CommonTypes::isLong, t -> Long.valueOf(s)),
-                    When.Matches(CommonTypes::isDouble, t -> Double.valueOf(s)),
-                    When.Matches(CommonTypes::isString, t -> s)
-            ).evaluate().getValue();
+            Function<Object, Object> converter = PrimitiveSerializer.CONVERTERS.get(typeInfo.getTypeClass());
+
+            if (converter == null)
+                throw new UnsupportedValueTypeException("Type '" + typeInfo + "' is not a primitive type. Key: '" + key + "'.");
+
+            return (T) converter.apply(value);
         }
     }
 
@@ -370,17 +521,18 @@ public final class Serializers {
         @Override
         public void serialize(Map value, Key<Map> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
 
-            Map<Object, Object> newMap = new LinkedHashMap<>();
+            Map<Object, Object> newMap = key.getConfig().getStorageMode().newMap();
             TypeInfo<?> keyType = typeInfo.getTypeParameter(0); // K
             TypeInfo<?> valueType = typeInfo.getTypeParameter(1); // V
 
             Map<String, Object> temp = new LinkedHashMap<>();
             Storage newStorage = Storage.createMapStorage(key, temp);
 
-            for (Map.Entry<?, ?> o : ((Map<?, ?>) value).entrySet()) {
-                Key<?> vKey = key.getAs(keyType, newStorage);
-                Key<?> vValue = key.getAs(valueType, newStorage);
+            // Scratch keys are reused for all entries, temp is cleared after each use
+            Key<?> vKey = key.getAs(keyType, newStorage);
+            Key<?> vValue = key.getAs(valueType, newStorage);
 
+            for (Map.Entry<?, ?> o : ((Map<?, ?>) value).entrySet()) {
                 Object serializedKey = serializers.serializeUncheckedAndGet(o.getKey(), vKey);
                 temp.clear();
 
@@ -406,11 +558,10 @@ public final class Serializers {
                 TypeInfo<?> valueType = typeInfo.getTypeParameter(1); // V
 
                 Storage newStorage = Storage.createMapStorage(key);
+                Key<?> vKey = key.getAs(keyType, newStorage);
+                Key<?> vValue = key.getAs(valueType, newStorage);
 
                 for (Map.Entry<?, ?> o : ((Map<?, ?>) value).entrySet()) {
-                    Key<?> vKey = key.getAs(keyType, newStorage);
-                    Key<?> vValue = key.getAs(valueType, newStorage);
-
                     newStorage.pushValue(vKey, o.getKey());
 
                     Object deserializedKey = serializers.deserialize(vKey);
@@ -437,17 +588,15 @@ public final class Serializers {
         public void serialize(List value, Key<List> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
             TypeInfo<?> elementType = typeInfo.getTypeParameter(0);
 
-            Storage newStorage = Storage.createListStorage(key);
+            Storage.ListStorage newStorage = Storage.createBufferedListStorage(key);
+            Key<?> newKey = key.getAs(elementType, newStorage);
 
             for (int i = 0; i < value.size(); i++) {
-                Object o = value.get(i);
-
-                Key<?> newKey = key.getAs(key.getName() + ":" + i, elementType, newStorage);
-
-                serializers.serializeUncheckedAndGet(o, newKey);
+                newStorage.moveTo(i);
+                serializers.serializeUnchecked(value.get(i), newKey);
             }
 
-            value.size();
+            newStorage.flush();
         }
 
         @Override
@@ -462,15 +611,11 @@ public final class Serializers {
 
                 List list = (List) value;
 
-                Storage listStorage = Storage.createListStorage(key);
-
-                for (int i = 0; i < list.size(); i++) {
-                    Object o = list.get(i);
-
-                    Key<?> newKey = key.getAs(key.getName() + ":" + i, elementType, listStorage);
+                Storage listStorage = Storage.createMapStorage(key);
+                Key<?> newKey = key.getAs(elementType, listStorage);
 
+                for (Object o : list) {
                     listStorage.pushValue(newKey, o);
-
                     result.add(serializers.deserialize(newKey));
                 }
             }
@@ -0,0 +1,156 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.AbstractIOBackend;
+import com.github.jonathanxd.config.backend.ConfigIO;
+import com.github.jonathanxd.iutils.box.MutableBox;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class AtomicIOTest {
+
+    @Test
+    public void atomicSaveTest() throws IOException {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.txt");
+
+        try {
+            Files.write(file, "a=old-value-that-is-longer\n".getBytes(StandardCharsets.UTF_8));
+
+            LinesBackend backend = new LinesBackend(ConfigIO.atomicPath(file, StandardCharsets.UTF_8));
+            Config config = new Config(backend);
+            config.load();
+
+            Assert.assertEquals("old-value-that-is-longer", config.getRootKey().getKey("a", String.class).getValue());
+
+            config.getRootKey().getKey("a", String.class).setValue("new");
+            config.save();
+
+            Assert.assertEquals("a=new\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+            backend.fail = true;
+            config.getRootKey().getKey("a", String.class).setValue("failed");
+
+            try {
+                config.save();
+                Assert.fail("Save should fail");
+            } catch (IllegalStateException ignored) {
+            }
+
+            Assert.assertEquals("a=new\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+            try (Stream<Path> files = Files.list(dir)) {
+                Assert.assertEquals(1L, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void bufferTest() throws IOException {
+        Path file = Files.createTempFile("config", ".txt");
+
+        try {
+            Files.write(file, "a=b\n".getBytes(StandardCharsets.UTF_8));
+
+            ConfigIO io = ConfigIO.atomicPath(file, StandardCharsets.UTF_8);
+            ByteBuffer buffer = io.openBuffer().orElseThrow(AssertionError::new);
+
+            Assert.assertEquals(StandardCharsets.UTF_8, io.getCharset().orElse(null));
+            Assert.assertEquals("a=b\n", StandardCharsets.UTF_8.decode(buffer).toString());
+
+            byte[] large = new byte[2 << 20];
+            Arrays.fill(large, (byte) 'x');
+            Files.write(file, large);
+
+            buffer = ConfigIO.path(file, StandardCharsets.UTF_8).openBuffer().orElseThrow(AssertionError::new);
+
+            Assert.assertTrue(buffer instanceof MappedByteBuffer);
+            Assert.assertEquals(large.length, buffer.remaining());
+            Assert.assertFalse(ConfigIO.stringBox(new MutableBox<>()).openBuffer().isPresent());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static class LinesBackend extends AbstractIOBackend {
+        boolean fail;
+
+        LinesBackend(ConfigIO io) {
+            super(io);
+        }
+
+        @Override
+        public Map<Object, Object> load(Reader reader) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+
+            for (String line : new BufferedReader(reader).lines().collect(Collectors.toList())) {
+                String[] split = line.split("=", 2);
+                map.put(split[0], split[1]);
+            }
+
+            return map;
+        }
+
+        @Override
+        public void save(Map<Object, Object> map, Writer writer) {
+            try {
+                for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                    writer.write(entry.getKey() + "=");
+
+                    if (this.fail)
+                        throw new IllegalStateException("Failed to save");
+
+                    writer.write(entry.getValue() + "\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BindingTest {
+
+    @Test
+    public void recordBindingTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("limits", limits(10, 5000L));
+        backend.getBackendMap().put("other", "value");
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<Void> section = config.getRootKey().getKeySection("limits");
+        Binding<Limits> binding = section.bind(Limits.class);
+
+        Assert.assertSame(binding, config.getRootKey().getKeySection("limits").bind(Limits.class));
+
+        Limits limits = binding.get();
+        Assert.assertEquals(new Limits(10, 5000L, null), limits);
+        Assert.assertSame(limits, binding.get());
+
+        // Changes outside of bound section do not invalidate the binding
+        config.getRootKey().getKey("other", String.class).setValue("changed");
+        Assert.assertSame(limits, binding.get());
+
+        section.getKey("connections", Integer.class).setValue(20);
+        Assert.assertEquals(new Limits(20, 5000L, null), binding.get());
+
+        limits = binding.get();
+
+        // Reload of an equal section does not invalidate the binding
+        backend.getBackendMap().put("limits", limits(20, 5000L));
+        config.load();
+        Assert.assertSame(limits, binding.get());
+
+        Map<Object, Object> changed = limits(20, 1000L);
+        changed.put("hosts", Arrays.asList("a", "b"));
+        backend.getBackendMap().put("limits", changed);
+        config.load();
+        Assert.assertEquals(new Limits(20, 1000L, Arrays.asList("a", "b")), binding.get());
+
+        binding.cancel();
+        Assert.assertNotSame(binding, section.bind(Limits.class));
+    }
+
+    @Test
+    public void interfaceBindingTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("limits", limits(10, 5000L));
+
+        Config config = new Config(backend);
+        config.load();
+
+        Binding<LimitsView> binding = config.getRootKey().getKeySection("limits").bind(LimitsView.class);
+        LimitsView view = binding.get();
+
+        Assert.assertEquals(10, view.connections());
+        Assert.assertEquals(5000L, view.timeout());
+        Assert.assertEquals(5L, view.timeoutSeconds());
+        Assert.assertSame(view, binding.get());
+
+        Assert.assertNull(config.getRootKey().getKeySection("missing").bind(LimitsView.class).get());
+    }
+
+    private static Map<Object, Object> limits(int connections, long timeout) {
+        Map<Object, Object> limits = new LinkedHashMap<>();
+        limits.put("connections", connections);
+        limits.put("timeout", timeout);
+        return limits;
+    }
+
+    public record Limits(int connections, long timeout, List<String> hosts) {
+    }
+
+    public interface LimitsView {
+        int connections();
+
+        long timeout();
+
+        default long timeoutSeconds() {
+            return this.timeout() / 1000;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.map.MapUtils;
+import com.github.jonathanxd.iutils.type.TypeParameterProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class CompiledKeyTest {
+
+    @Test
+    public void compiledKeyTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+
+        Key<Integer> limit = config.getRootKey()
+                .getKey("a", Void.TYPE)
+                .getKey("b", Void.TYPE)
+                .getKey("limit", Integer.class);
+
+        CompiledKey<Integer> compiled = limit.compile();
+
+        Assert.assertTrue(compiled.isCompiled());
+        Assert.assertFalse(compiled.exists());
+
+        compiled.setValue(10);
+
+        Assert.assertEquals(10, (int) limit.getValue());
+        Assert.assertEquals(10, (int) compiled.getValue());
+
+        limit.setValue(20);
+        Assert.assertEquals(20, (int) compiled.getValue());
+
+        backend.getBackendMap().clear();
+        backend.getBackendMap().put("a", MapUtils.mapOf("b", MapUtils.mapOf("limit", 30)));
+        config.load();
+
+        Assert.assertEquals(30, (int) compiled.getValue());
+
+        config.getRootKey().getKey("a", new TypeParameterProvider<Map<String, Map<String, Integer>>>() {}.createTypeInfo()).setValue(MapUtils.mapOf("b", MapUtils.mapOf("limit", 40)));
+
+        Assert.assertEquals(40, (int) compiled.getValue());
+        Assert.assertEquals(compiled, limit);
+    }
+
+    @Test
+    public void sectionReplacedByValueTest() {
+        Config config = new Config(new MapBackend());
+        CompiledKey<Integer> compiled = config.getRootKey()
+                .getKey("a", Void.TYPE)
+                .getKey("b", Integer.class)
+                .compile();
+
+        compiled.setValue(10);
+        Assert.assertEquals(10, (int) compiled.getValue());
+
+        config.getRootKey().getKey("a", Integer.class).setValue(5);
+
+        Assert.assertFalse(compiled.exists());
+
+        try {
+            compiled.getValue();
+            Assert.fail("Value of replaced section should not be returned");
+        } catch (KeyNotFoundException ignored) {
+        }
+
+        // Write is not lost in the detached section
+        try {
+            compiled.setValue(20);
+            Assert.fail("Value should not be written to replaced section");
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        Assert.assertEquals(5, config.getRootKey().getKey("a", Integer.class).getValue().intValue());
+    }
+
+    @Test
+    public void compiledKeySpecTest() {
+        Config config = new Config(new MapBackend());
+        KeySpec<String> name = KeySpec.create("name", String.class);
+
+        Key<Void> section = config.getRootKey().getKeySection("section");
+        CompiledKey<String> compiled = name.compile(section);
+
+        section.get(name).setValue("config");
+
+        Assert.assertEquals("config", compiled.getValue());
+        Assert.assertEquals("config", compiled.getAs(String.class).getValue());
+    }
+
+    @Test
+    public void notCompilableTest() {
+        Config config = new Config(new MapBackend());
+
+        Key<String> key = config.getRootKey().getKey("a", String.class);
+        CompiledKey<String> compiled = ValueProcessKey.from(key, String::trim, null).compile();
+
+        compiled.setValue(" value ");
+
+        Assert.assertFalse(compiled.isCompiled());
+        Assert.assertEquals(" value ", key.getValue());
+    }
+}
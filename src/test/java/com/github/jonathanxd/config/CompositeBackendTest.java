@@ -0,0 +1,239 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.Backend;
+import com.github.jonathanxd.config.backend.CompositeBackend;
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CompositeBackendTest {
+
+    @Test
+    public void compositeTest() {
+        MapBackend defaults = new MapBackend();
+        defaults.getBackendMap().put("name", "Default");
+        defaults.getBackendMap().put("limit", 10);
+        defaults.getBackendMap().put("server", section("host", "localhost", "port", 80));
+        defaults.getBackendMap().put("database", section("url", "jdbc:h2:mem"));
+
+        MapBackend user = new MapBackend();
+        user.getBackendMap().put("name", "User");
+        user.getBackendMap().put("server", section("port", 8080));
+        user.getBackendMap().put("cache", section("size", 64));
+
+        CompositeBackend backend = new CompositeBackend(Arrays.asList(defaults, user));
+        Config config = new Config(backend);
+        config.load();
+
+        Key<?> root = config.getRootKey();
+        Key<Void> server = root.getKeySection("server");
+
+        Assert.assertEquals("User", root.getKey("name", String.class).getValue());
+        Assert.assertEquals(Integer.valueOf(10), root.getKey("limit", Integer.class).getValue());
+        Assert.assertEquals("localhost", server.getKey("host", String.class).getValue());
+        Assert.assertEquals(Integer.valueOf(8080), server.getKey("port", Integer.class).getValue());
+        Assert.assertEquals(Arrays.asList("name", "limit", "server", "database", "cache"),
+                Arrays.asList(((Map<?, ?>) root.getValue()).keySet().toArray()));
+
+        Assert.assertSame(user, backend.getOwner(root.getKey("name", String.class)));
+        Assert.assertSame(defaults, backend.getOwner(root.getKey("limit", Integer.class)));
+        Assert.assertSame(defaults, backend.getOwner(server.getKey("host", String.class)));
+        Assert.assertSame(user, backend.getOwner(server.getKey("port", Integer.class)));
+
+        // New keys go to the owner of the section, or to the last source
+        Assert.assertSame(defaults, backend.getOwner(root.getKeySection("database").getKey("user", String.class)));
+        Assert.assertSame(user, backend.getOwner(server.getKey("timeout", Integer.class)));
+        Assert.assertSame(user, backend.getOwner(root.getKey("other", String.class)));
+
+        server.getKey("host", String.class).setValue("example.com");
+        server.getKey("timeout", Integer.class).setValue(30);
+        root.getKeySection("database").getKey("user", String.class).setValue("sa");
+        config.save();
+
+        Assert.assertEquals(map("name", "Default", "limit", 10,
+                "server", section("host", "example.com", "port", 80),
+                "database", section("url", "jdbc:h2:mem", "user", "sa")), defaults.getBackendMap());
+
+        Assert.assertEquals(map("name", "User",
+                "server", section("port", 8080, "timeout", 30),
+                "cache", section("size", 64)), user.getBackendMap());
+    }
+
+    @Test
+    public void replaceSectionTest() {
+        MapBackend first = new MapBackend();
+        first.getBackendMap().put("value", section("a", 1));
+        first.getBackendMap().put("other", 1);
+
+        MapBackend second = new MapBackend();
+        second.getBackendMap().put("value", 2);
+        second.getBackendMap().put("other", section("b", 2));
+
+        CompositeBackend backend = new CompositeBackend(Arrays.asList(first, second));
+        Config config = new Config(backend);
+        config.load();
+
+        Assert.assertEquals(map("value", 2, "other", section("b", 2)), config.getRootKey().getValue());
+        Assert.assertSame(second, backend.getOwner(config.getRootKey().getKeySection("other").getKey("c", Integer.class)));
+
+        config.save();
+
+        // Overridden values are kept in their sources
+        Assert.assertEquals(map("value", section("a", 1), "other", 1), first.getBackendMap());
+        Assert.assertEquals(map("value", 2, "other", section("b", 2)), second.getBackendMap());
+    }
+
+    @Test
+    public void saveChangedSourcesTest() {
+        AtomicInteger defaultsSaves = new AtomicInteger();
+        AtomicInteger userSaves = new AtomicInteger();
+
+        MapBackend defaults = new MapBackend() {
+            @Override
+            public void save(Map<Object, Object> map) {
+                defaultsSaves.incrementAndGet();
+                super.save(map);
+            }
+        };
+        defaults.getBackendMap().put("name", "Default");
+        defaults.getBackendMap().put("server", section("host", "localhost", "port", 80));
+
+        MapBackend user = new MapBackend() {
+            @Override
+            public void save(Map<Object, Object> map) {
+                userSaves.incrementAndGet();
+                super.save(map);
+            }
+        };
+        user.getBackendMap().put("name", "User");
+        user.getBackendMap().put("server", section("port", 8080));
+
+        Config config = new Config(new CompositeBackend(Arrays.asList(defaults, user)));
+        config.load();
+
+        config.save();
+
+        Assert.assertEquals(0, defaultsSaves.get());
+        Assert.assertEquals(0, userSaves.get());
+
+        config.getRootKey().getKeySection("server").getKey("port", Integer.class).setValue(9090);
+        config.save();
+
+        Assert.assertEquals(0, defaultsSaves.get());
+        Assert.assertEquals(1, userSaves.get());
+        Assert.assertEquals(map("name", "User", "server", section("port", 9090)), user.getBackendMap());
+
+        // Already saved content is not saved again
+        config.save();
+
+        Assert.assertEquals(0, defaultsSaves.get());
+        Assert.assertEquals(1, userSaves.get());
+    }
+
+    @Test
+    public void nonStringKeyOwnerTest() {
+        MapBackend defaults = new MapBackend();
+        defaults.getBackendMap().put("levels", section(1, "One", 2, "Two"));
+
+        MapBackend user = new MapBackend();
+        user.getBackendMap().put("levels", section(2, "Second"));
+
+        CompositeBackend backend = new CompositeBackend(Arrays.asList(defaults, user));
+        Config config = new Config(backend);
+        config.load();
+
+        Key<Void> levels = config.getRootKey().getKeySection("levels");
+
+        Assert.assertSame(defaults, backend.getOwner(levels.getKey("1", String.class)));
+        Assert.assertSame(user, backend.getOwner(levels.getKey("2", String.class)));
+    }
+
+    @Test
+    public void parallelLoadTest() throws InterruptedException {
+        int count = 4;
+        CountDownLatch latch = new CountDownLatch(count);
+        Backend[] sources = new Backend[count];
+
+        for (int i = 0; i < count; i++) {
+            int index = i;
+
+            sources[i] = new MapBackend() {
+                @Override
+                public Map<Object, Object> load() {
+                    latch.countDown();
+
+                    try {
+                        // Completes only if all sources are loaded at same time
+                        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+
+                    return map("index", index);
+                }
+            };
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+
+        try {
+            Config config = new Config(new CompositeBackend(Arrays.asList(sources), executor));
+            config.load();
+
+            Assert.assertEquals(Integer.valueOf(count - 1), config.getRootKey().getKey("index", Integer.class).getValue());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Map<Object, Object> section(Object... entries) {
+        return map(entries);
+    }
+
+    private static Map<Object, Object> map(Object... entries) {
+        Map<Object, Object> map = new LinkedHashMap<>();
+
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put(entries[i], entries[i + 1]);
+        }
+
+        return map;
+    }
+}
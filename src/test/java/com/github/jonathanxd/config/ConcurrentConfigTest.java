@@ -0,0 +1,137 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrentConfigTest {
+
+    @Test
+    public void concurrentWriteTest() throws Exception {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend, StorageMode.CONCURRENT);
+
+        int threads = 8;
+        int keys = 200;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; ++t) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    Key<Void> section = config.getRootKey()
+                            .getKeySection("shared")
+                            .getKeySection("thread" + thread);
+
+                    for (int i = 0; i < keys; ++i) {
+                        section.getKey("key" + i, Integer.class).setValue(i);
+                        config.getRootKey().getKeySection("shared").getKey("last" + thread, Integer.class).setValue(i);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        config.save();
+
+        Map<?, ?> shared = (Map<?, ?>) backend.getBackendMap().get("shared");
+
+        for (int t = 0; t < threads; ++t) {
+            Assert.assertEquals(keys, ((Map<?, ?>) shared.get("thread" + t)).size());
+            Assert.assertEquals(keys - 1, (int) config.getRootKey()
+                    .getKeySection("shared")
+                    .getKey("last" + t, Integer.class)
+                    .getValue());
+        }
+    }
+
+    @Test
+    public void concurrentLoadCopyTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend, StorageMode.CONCURRENT);
+
+        config.getRootKey().getKeySection("a").getKey("b", String.class).setValue("c");
+        config.save();
+
+        Map<?, ?> saved = (Map<?, ?>) backend.getBackendMap().get("a");
+
+        config.getRootKey().getKeySection("a").getKey("b", String.class).setValue("d");
+
+        Assert.assertEquals("c", saved.get("b"));
+        Assert.assertEquals(StorageMode.CONCURRENT, config.getStorageMode());
+    }
+
+    @Test
+    public void reloadWhileReadingTest() throws Exception {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+
+        config.getRootKey().getKeySection("server").getKey("port", Integer.class).setValue(8080);
+        config.save();
+
+        Key<Integer> port = config.getRootKey().getKeySection("server").getKey("port", Integer.class);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> reader = executor.submit(() -> {
+                while (running.get()) {
+                    Assert.assertEquals(8080, (int) port.getValue());
+                }
+            });
+
+            for (int i = 0; i < 2000; ++i) {
+                config.load();
+            }
+
+            running.set(false);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.collection.Collections3;
+import com.github.jonathanxd.iutils.map.MapUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConfigListenerTest {
+
+    @Test
+    public void loadDiffTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("server", MapUtils.mapOf("host", "localhost", "port", 80));
+        backend.getBackendMap().put("db", MapUtils.mapOf("url", "jdbc:a"));
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<Void> server = config.getRootKey().getKeySection("server");
+        Key<Void> db = config.getRootKey().getKeySection("db");
+
+        List<ConfigChange> serverChanges = new ArrayList<>();
+        List<ConfigChange> dbChanges = new ArrayList<>();
+        List<ConfigChange> portChanges = new ArrayList<>();
+
+        server.addListener(serverChanges::add);
+        db.addListener(dbChanges::add);
+        ConfigListener.Registration port = server.getKey("port", Integer.class).addListener(portChanges::add);
+
+        backend.getBackendMap().put("server", MapUtils.mapOf("host", "example.com", "port", 80, "timeout", 10));
+        config.load();
+
+        Assert.assertEquals(0, dbChanges.size());
+        Assert.assertEquals(0, portChanges.size());
+        Assert.assertEquals(2, serverChanges.size());
+
+        ConfigChange host = serverChanges.get(0);
+        Assert.assertEquals(ConfigChange.Type.MODIFIED, host.getType());
+        Assert.assertEquals(Collections3.listOf("server", "host"), host.getPath());
+        Assert.assertEquals("localhost", host.getOldValue());
+        Assert.assertEquals("example.com", host.getNewValue());
+
+        ConfigChange timeout = serverChanges.get(1);
+        Assert.assertEquals(ConfigChange.Type.ADDED, timeout.getType());
+        Assert.assertEquals(Collections3.listOf("server", "timeout"), timeout.getPath());
+
+        backend.getBackendMap().remove("server");
+        config.load();
+
+        Assert.assertEquals(1, portChanges.size());
+        Assert.assertEquals(ConfigChange.Type.REMOVED, portChanges.get(0).getType());
+        Assert.assertEquals(Collections3.listOf("server"), portChanges.get(0).getPath());
+
+        port.cancel();
+        backend.getBackendMap().put("server", MapUtils.mapOf("port", 8080));
+        config.load();
+
+        Assert.assertEquals(1, portChanges.size());
+    }
+
+    @Test
+    public void setValueTest() {
+        Config config = new Config(new MapBackend());
+
+        Key<Integer> limit = config.getRootKey().getKeySection("limits").getKey("max", Integer.class);
+        Key<Integer> other = config.getRootKey().getKeySection("limits").getKey("min", Integer.class);
+
+        List<ConfigChange> changes = new ArrayList<>();
+        limit.addListener(changes::add);
+
+        limit.setValue(10);
+        limit.setValue(10);
+        other.setValue(1);
+        limit.setInt(20);
+
+        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals(ConfigChange.Type.ADDED, changes.get(0).getType());
+        Assert.assertEquals(10, changes.get(0).getNewValue());
+        Assert.assertEquals(ConfigChange.Type.MODIFIED, changes.get(1).getType());
+        Assert.assertEquals(10, changes.get(1).getOldValue());
+        Assert.assertEquals(20, changes.get(1).getNewValue());
+    }
+}
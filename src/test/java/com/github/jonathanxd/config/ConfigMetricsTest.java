@@ -0,0 +1,95 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.ConfigIO;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ConfigMetricsTest {
+
+    @Test
+    public void metricsTest() throws IOException {
+        Path file = Files.createTempFile("config", ".txt");
+        Files.write(file, "a=1\nb=2\n".getBytes(StandardCharsets.UTF_8));
+
+        AtomicIOTest.LinesBackend backend = new AtomicIOTest.LinesBackend(ConfigIO.atomicPath(file, StandardCharsets.UTF_8));
+        Config config = new Config(backend);
+        InMemoryConfigMetrics metrics = new InMemoryConfigMetrics();
+        config.setMetrics(metrics);
+
+        config.load();
+
+        Assert.assertEquals(1L, metrics.getLoad().getCount());
+        Assert.assertEquals(2L, metrics.getDocumentEntries());
+        Assert.assertEquals(8L, metrics.getDocumentSize());
+        Assert.assertEquals(1L, metrics.getParse().get("LinesBackend").getCount());
+
+        Key<String> a = config.getRootKey().getKey("a", String.class);
+        a.getValue();
+        a.getValue();
+        a.setValue("3");
+
+        Assert.assertEquals(2L, metrics.getGets(KeyUtil.getPathAsString(a)));
+        Assert.assertEquals(1L, metrics.getStores(KeyUtil.getPathAsString(a)));
+        Assert.assertTrue(metrics.getSerializerCacheHits() + metrics.getSerializerCacheMisses() >= 3L);
+        Assert.assertTrue(metrics.getSerializerCacheHits() >= 2L);
+
+        config.save();
+
+        Assert.assertEquals(1L, metrics.getSave().getCount());
+        Assert.assertEquals(1L, metrics.getRender().get("LinesBackend").getCount());
+        Assert.assertEquals(8L, metrics.getDocumentSize());
+
+        config.setMetrics(ConfigMetrics.NONE);
+        a.getValue();
+
+        Assert.assertEquals(2L, metrics.getGets(KeyUtil.getPathAsString(a)));
+    }
+
+    @Test
+    public void histogramTest() {
+        InMemoryConfigMetrics.Histogram histogram = new InMemoryConfigMetrics().getLoad();
+
+        for (int i = 1; i <= 100; ++i)
+            histogram.record(i * 1000L);
+
+        Assert.assertEquals(100L, histogram.getCount());
+        Assert.assertEquals(100_000L, histogram.getMaxNanos());
+        Assert.assertEquals(5_050_000L, histogram.getTotalNanos());
+        Assert.assertTrue(histogram.getPercentileNanos(50) >= 50_000L);
+        Assert.assertTrue(histogram.getPercentileNanos(50) < 100_000L);
+        Assert.assertEquals(100_000L, histogram.getPercentileNanos(100));
+    }
+}
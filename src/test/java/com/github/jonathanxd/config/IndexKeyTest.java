@@ -0,0 +1,113 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IndexKeyTest {
+
+    private static final TypeInfo<List<Map<String, Object>>> SERVERS =
+            TypeInfo.builderOf(List.class).of(TypeInfo.builderOf(Map.class).of(String.class, Object.class)).buildGeneric();
+
+    @Test
+    public void indexTest() {
+        MapBackend backend = new MapBackend();
+        List<Object> servers = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> server = new LinkedHashMap<>();
+            server.put("host", "host" + i);
+            server.put("port", 8000 + i);
+            servers.add(server);
+        }
+
+        backend.getBackendMap().put("servers", servers);
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<List<Map<String, Object>>> key = config.getRootKey().getKey("servers", SERVERS);
+        List<IndexKey<Map<String, Object>>> indexes = IndexKey.forAllIndexes(key);
+
+        Assert.assertEquals(1000, indexes.size());
+
+        for (IndexKey<Map<String, Object>> server : indexes) {
+            Assert.assertEquals("host" + server.getIndex(), server.getKey("host", String.class).getValue());
+            server.getKey("port", Integer.class).setValue(server.getIndex());
+        }
+
+        List<?> stored = (List<?>) ((Map<?, ?>) config.getRootKey().getValue()).get("servers");
+
+        Assert.assertEquals(1000, stored.size());
+        Assert.assertEquals(999, ((Map<?, ?>) stored.get(999)).get("port"));
+        Assert.assertFalse(IndexKey.forKeyAndIndex(key, 1000).exists());
+        Assert.assertEquals(Collections.emptyList(), IndexKey.forAllIndexes(config.getRootKey().getKey("missing", SERVERS)));
+    }
+
+    @Test
+    public void inPlaceTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("names", Collections.unmodifiableList(Arrays.asList("a", "b", "c")));
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<List<String>> names = config.getRootKey().getKey("names", CommonTypes.LIST_OF_STRING);
+        IndexKey<String> first = IndexKey.forKeyAndIndex(names, 0);
+        IndexKey<String> second = IndexKey.forKeyAndIndex(names, 1);
+
+        // Unmodifiable list is replaced by a copy
+        first.setValue("x");
+        Assert.assertEquals(Arrays.asList("x", "b", "c"), names.getValue());
+
+        List<?> stored = (List<?>) ((Map<?, ?>) config.getRootKey().getValue()).get("names");
+
+        // Following writes are in place
+        second.setValue("y");
+        Assert.assertSame(stored, ((Map<?, ?>) config.getRootKey().getValue()).get("names"));
+        Assert.assertEquals(Arrays.asList("x", "y", "c"), stored);
+        Assert.assertEquals("y", second.getValue());
+
+        try {
+            IndexKey.forKeyAndIndex(names, 3).setValue("z");
+            Assert.fail();
+        } catch (KeyNotFoundException ignored) {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyInterningTest {
+
+    private static final KeySpec<Integer> LIMIT = KeySpec.create("limit", Integer.class);
+
+    @Test
+    public void internTest() {
+        Config config = new Config(new MapBackend());
+        Key<?> root = config.getRootKey();
+        Key<Void> section = root.getKeySection("section");
+
+        Assert.assertSame(section, root.getKeySection("section"));
+        Assert.assertSame(section.get(LIMIT), section.get(LIMIT));
+        Assert.assertSame(section.get(LIMIT), root.getKeySection("section").getKey("limit", TypeInfo.of(Integer.class)));
+
+        Key<String> limitAsString = section.getKey("limit", String.class);
+        Assert.assertNotSame(section.get(LIMIT), limitAsString);
+        Assert.assertSame(limitAsString, section.getKey("limit", String.class));
+        Assert.assertEquals(section.get(LIMIT), limitAsString);
+        Assert.assertEquals(section.get(LIMIT).hashCode(), limitAsString.hashCode());
+
+        section.get(LIMIT).setValue(10);
+        Assert.assertEquals(Integer.valueOf(10), root.getKeySection("section").get(LIMIT).getValue());
+    }
+
+    @Test
+    public void emulatedTest() {
+        Config config = new Config(new MapBackend());
+        Key<Void> emulated = config.getRootKey().getKeySection("section").getAs(Void.TYPE, Storage.createMapStorage(config.getRootKey()));
+
+        Assert.assertNotSame(emulated.getKey("limit", Integer.class), emulated.getKey("limit", Integer.class));
+    }
+
+    @Test
+    public void sectionRecreatedTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+        Key<Void> section = config.getRootKey().getKeySection("section");
+        section.getKey("limit", Integer.class).setValue(10);
+
+        // Interned keys keep working after sections are replaced
+        config.load();
+        config.getRootKey().getKeySection("section").getKey("limit", Integer.class).setValue(20);
+
+        Assert.assertEquals(Integer.valueOf(20), section.getKey("limit", Integer.class).getValue());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+import com.github.jonathanxd.iutils.map.MapUtils;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+import com.github.jonathanxd.iutils.type.TypeParameterProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class LargeListTest {
+    private static final TypeInfo<List<Integer>> INT_LIST_TYPE = new TypeParameterProvider<List<Integer>>() {}.createTypeInfo();
+
+    @Test(timeout = 10000)
+    public void largeListTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+
+        List<Integer> list = new ArrayList<>();
+
+        for (int i = 0; i < 100_000; ++i) {
+            list.add(i);
+        }
+
+        Key<List<Integer>> key = config.getRootKey().getKey("numbers", INT_LIST_TYPE);
+        key.setValue(list);
+
+        Assert.assertEquals(list, key.getValue());
+
+        config.save();
+        Assert.assertEquals(list, backend.getBackendMap().get("numbers"));
+    }
+
+    @Test
+    public void replaceWithEmptyListTest() {
+        Config config = new Config(new MapBackend());
+
+        Key<List<Integer>> key = config.getRootKey().getKey("numbers", INT_LIST_TYPE);
+        key.setValue(Collections.singletonList(1));
+        key.setValue(Collections.emptyList());
+
+        Assert.assertEquals(Collections.emptyList(), key.getValue());
+    }
+
+    @Test
+    public void listStoragePushesEveryElementTest() {
+        Config config = new Config(new MapBackend());
+
+        Key<List<Integer>> key = config.getRootKey().getKey("numbers", INT_LIST_TYPE);
+        Storage.ListStorage storage = Storage.createListStorage(key);
+
+        Assert.assertEquals(Collections.emptyList(), key.getValue());
+
+        Key<Integer> first = key.getAs("0", Integer.class, storage);
+        Key<Integer> second = key.getAs("1", Integer.class, storage);
+
+        storage.pushValue(first, 1);
+        Assert.assertEquals(Collections.singletonList(1), key.getValue());
+
+        storage.pushValue(second, 2);
+        Assert.assertEquals(Arrays.asList(1, 2), key.getValue());
+
+        storage.pushValue(first, 3);
+        Assert.assertEquals(Arrays.asList(3, 2), key.getValue());
+    }
+
+    @Test
+    public void listOfSectionsTest() {
+        Config config = new Config(new MapBackend());
+
+        List<Map<String, Integer>> list = new ArrayList<>();
+
+        for (int i = 0; i < 100; ++i) {
+            list.add(MapUtils.mapOf("a", i, "b", -i));
+        }
+
+        Key<List<Map<String, Integer>>> key = config.getRootKey()
+                .getKey("sections", new TypeParameterProvider<List<Map<String, Integer>>>() {}.createTypeInfo());
+        key.setValue(list);
+
+        Assert.assertEquals(list, key.getValue());
+    }
+}
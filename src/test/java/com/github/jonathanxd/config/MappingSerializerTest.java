@@ -0,0 +1,177 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class MappingSerializerTest {
+
+    @Test
+    public void recordTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+        config.getSerializers().registerMappingSerializer(Server.class);
+        config.getSerializers().registerMappingSerializer(Address.class);
+
+        UUID id = UUID.randomUUID();
+        Server server = new Server("Main", 8080, true, Arrays.asList("a", "b"), new Address("localhost", 25565), id);
+
+        Key<Server> key = config.getRootKey().getKey("server", Server.class);
+        key.setValue(server);
+        config.save();
+
+        Map<Object, Object> address = new LinkedHashMap<>();
+        address.put("host", "localhost");
+        address.put("port", 25565);
+
+        Map<?, ?> saved = (Map<?, ?>) backend.getBackendMap().get("server");
+
+        Assert.assertEquals("Main", saved.get("name"));
+        Assert.assertEquals(8080, saved.get("port"));
+        Assert.assertEquals(Arrays.asList("a", "b"), saved.get("tags"));
+        Assert.assertEquals(address, saved.get("address"));
+        Assert.assertEquals(id.toString(), saved.get("id"));
+
+        config.load();
+        Assert.assertEquals(server, key.getValue());
+    }
+
+    @Test
+    public void recordConversionTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+        config.getSerializers().registerMappingSerializer(Address.class);
+
+        Map<Object, Object> address = new LinkedHashMap<>();
+        address.put("host", "localhost");
+        address.put("port", 25565L);
+
+        backend.getBackendMap().put("address", address);
+        backend.getBackendMap().put("empty", new LinkedHashMap<>());
+        config.load();
+
+        Assert.assertEquals(new Address("localhost", 25565), config.getRootKey().getKey("address", Address.class).getValue());
+        Assert.assertEquals(new Address(null, 0), config.getRootKey().getKey("empty", Address.class).getValue());
+    }
+
+    @Test
+    public void objectTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+        config.getSerializers().registerMappingSerializer(User.class);
+
+        User user = new User();
+        user.id = 7;
+        user.name = "User";
+        user.scores = Arrays.asList(1, 2, 3);
+        user.session = "transient";
+
+        Key<User> key = config.getRootKey().getKey("user", User.class);
+        key.setValue(user);
+        config.save();
+
+        Map<?, ?> saved = (Map<?, ?>) backend.getBackendMap().get("user");
+
+        Assert.assertEquals(Arrays.asList("id", "name", "scores"), Arrays.asList(saved.keySet().toArray()));
+
+        config.load();
+        User loaded = key.getValue();
+
+        Assert.assertEquals(7L, loaded.id);
+        Assert.assertEquals("User", loaded.name);
+        Assert.assertEquals(Arrays.asList(1, 2, 3), loaded.scores);
+        Assert.assertNull(loaded.session);
+    }
+
+    @Test
+    public void finalFieldsObjectTest() {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend);
+        config.getSerializers().registerMappingSerializer(Account.class);
+
+        Key<Account> key = config.getRootKey().getKey("account", Account.class);
+        key.setValue(new Account(3, "Owner", 10));
+        config.save();
+
+        config.load();
+        Account loaded = key.getValue();
+
+        Assert.assertEquals(3L, loaded.id);
+        Assert.assertEquals("Owner", loaded.owner);
+        Assert.assertEquals(10, loaded.balance);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void finalFieldsWithoutConstructorTest() {
+        new Config(new MapBackend()).getSerializers().registerMappingSerializer(Token.class);
+    }
+
+    public record Server(String name, int port, boolean enabled, List<String> tags, Address address, UUID id) {
+    }
+
+    public record Address(String host, int port) {
+    }
+
+    static class Entity {
+        long id;
+    }
+
+    static class User extends Entity {
+        private String name;
+        private List<Integer> scores;
+        private transient String session;
+    }
+
+    static class Account extends Entity {
+        private final String owner;
+        private int balance;
+
+        Account(long id, String owner, int balance) {
+            this.id = id;
+            this.owner = owner;
+            this.balance = balance;
+        }
+    }
+
+    static class Token {
+        private final String value;
+
+        Token() {
+            this.value = "";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class MissingSectionTest {
+
+    @Test
+    public void readTest() {
+        Config config = new Config(new MapBackend());
+        Key<?> root = config.getRootKey();
+        Key<Integer> limit = root.getKeySection("a").getKeySection("b").getKey("limit", Integer.class);
+
+        Assert.assertFalse(limit.exists());
+        Assert.assertEquals(Integer.valueOf(5), limit.getValueOr(5));
+        Assert.assertEquals(Integer.valueOf(7), limit.getValueOrSupplied(() -> 7));
+        Assert.assertFalse(root.getKeySection("a").exists());
+
+        try {
+            limit.getValue();
+            Assert.fail();
+        } catch (KeyNotFoundException ignored) {
+        }
+
+        Assert.assertEquals(Collections.emptyMap(), root.getValue());
+
+        limit.setValue(10);
+
+        Assert.assertTrue(limit.exists());
+        Assert.assertEquals(Integer.valueOf(10), ((Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) root.getValue()).get("a")).get("b")).get("limit"));
+    }
+
+    @Test
+    public void listenerTest() {
+        Config config = new Config(new MapBackend());
+        Key<Integer> limit = config.getRootKey().getKeySection("a").getKey("limit", Integer.class);
+        limit.addListener(change -> {
+        });
+
+        Assert.assertEquals(Integer.valueOf(5), limit.getValueOr(5));
+        Assert.assertEquals(Collections.emptyMap(), config.getRootKey().getValue());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveKeyTest {
+
+    @Test
+    public void primitiveAccessorsTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("int", 10L);
+        backend.getBackendMap().put("double", "2.5");
+        backend.getBackendMap().put("bool", true);
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<Integer> intKey = config.getRootKey().getKey("int", Integer.class);
+        Key<Double> doubleKey = config.getRootKey().getKey("double", Double.class);
+        Key<Boolean> boolKey = config.getRootKey().getKey("bool", Boolean.class);
+
+        Assert.assertEquals(10, intKey.getInt());
+        Assert.assertEquals(10L, intKey.getLong());
+        Assert.assertEquals(2.5, doubleKey.getDouble(), 0.0);
+        Assert.assertTrue(boolKey.getBoolean());
+
+        intKey.setInt(20);
+        doubleKey.setDouble(3.5);
+        boolKey.setBoolean(false);
+
+        Assert.assertEquals(20, (int) intKey.getValue());
+        Assert.assertEquals(3.5, doubleKey.getValue(), 0.0);
+        Assert.assertFalse(boolKey.getValue());
+    }
+
+    @Test
+    public void processedPrimitiveTest() {
+        Config config = new Config(new MapBackend());
+
+        Key<Integer> key = ValueProcessKey.from(config.getRootKey().getKey("limit", Integer.class),
+                v -> Math.min(v, 100), null);
+
+        key.setInt(500);
+
+        Assert.assertEquals(100, key.getInt());
+    }
+
+    @Test
+    public void processedPrimitiveGetTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("limit", 500);
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<Integer> key = ValueProcessKey.from(config.getRootKey().getKey("limit", Integer.class),
+                null, v -> Math.min(v, 100));
+
+        Assert.assertEquals(100, key.getInt());
+        Assert.assertEquals(100L, key.getLong());
+    }
+
+    @Test
+    public void primitiveTypeCheckTest() {
+        Config config = new Config(new MapBackend());
+        Key<?> root = config.getRootKey();
+
+        Key<String> stringKey = root.getKey("string", String.class);
+
+        try {
+            stringKey.setInt(1);
+            Assert.fail("Integer must not be stored in a String key");
+        } catch (IllegalStateException ignored) {
+        }
+
+        Assert.assertFalse(stringKey.exists());
+
+        Key<Integer> primitiveKey = root.getKey("primitive", Integer.TYPE);
+
+        primitiveKey.setInt(5);
+
+        Assert.assertEquals(5, primitiveKey.getInt());
+    }
+
+    @Test(expected = KeyNotFoundException.class)
+    public void missingPrimitiveTest() {
+        Config config = new Config(new MapBackend());
+
+        config.getRootKey().getKey("missing", Integer.class).getInt();
+    }
+
+    @Test
+    public void primitiveDeserializationTest() {
+        MapBackend backend = new MapBackend();
+        backend.getBackendMap().put("byte", 7);
+        backend.getBackendMap().put("short", "8");
+        backend.getBackendMap().put("char", "c");
+        backend.getBackendMap().put("float", 1.5D);
+        backend.getBackendMap().put("long", 9);
+        backend.getBackendMap().put("string", 10);
+
+        Config config = new Config(backend);
+        config.load();
+
+        Key<?> root = config.getRootKey();
+
+        Assert.assertEquals(Byte.valueOf((byte) 7), root.getKey("byte", Byte.class).getValue());
+        Assert.assertEquals(Short.valueOf((short) 8), root.getKey("short", Short.TYPE).getValue());
+        Assert.assertEquals(Character.valueOf('c'), root.getKey("char", Character.class).getValue());
+        Assert.assertEquals(Float.valueOf(1.5F), root.getKey("float", Float.class).getValue());
+        Assert.assertEquals(Long.valueOf(9L), root.getKey("long", Long.class).getValue());
+        Assert.assertEquals("10", root.getKey("string", String.class).getValue());
+    }
+}
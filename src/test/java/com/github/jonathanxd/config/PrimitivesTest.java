@@ -0,0 +1,107 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class PrimitivesTest {
+
+    @Test
+    public void integralConversionTest() {
+        Assert.assertEquals(7, Primitives.toByte(7L));
+        Assert.assertEquals(-8, Primitives.toShort(-8));
+        Assert.assertEquals(Integer.MAX_VALUE, Primitives.toInt((long) Integer.MAX_VALUE));
+        Assert.assertEquals(Long.MIN_VALUE, Primitives.toLong(BigInteger.valueOf(Long.MIN_VALUE)));
+        Assert.assertEquals(12L, Primitives.toLong(new BigDecimal("12")));
+        Assert.assertEquals(1.5F, Primitives.toFloat(1.5D), 0.0F);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void integralDoubleToIntTest() {
+        Primitives.toInt(3.0D);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void integralBigDecimalToLongTest() {
+        Primitives.toLong(new BigDecimal("12.00"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void fractionalIntTest() {
+        Primitives.toInt(1.5D);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowIntTest() {
+        Primitives.toInt(3_000_000_000L);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowByteTest() {
+        Primitives.toByte(300);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowShortTest() {
+        Primitives.toShort(40_000);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void fractionalLongTest() {
+        Primitives.toLong(2.25F);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowLongTest() {
+        Primitives.toLong(BigInteger.ONE.shiftLeft(63));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowDoubleToLongTest() {
+        Primitives.toLong(0x1p63);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void nanIntTest() {
+        Primitives.toInt(Double.NaN);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowFloatTest() {
+        Primitives.toFloat(1e300D);
+    }
+
+    @Test
+    public void infiniteFloatTest() {
+        Assert.assertEquals(Float.POSITIVE_INFINITY, Primitives.toFloat(Double.POSITIVE_INFINITY), 0.0F);
+    }
+}
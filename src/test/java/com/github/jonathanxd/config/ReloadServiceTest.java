@@ -0,0 +1,175 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.ConfigIO;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReloadServiceTest {
+
+    @Test
+    public void reloadTest() throws Exception {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.txt");
+        Files.write(file, "a=1\n".getBytes(StandardCharsets.UTF_8));
+
+        AtomicInteger loads = new AtomicInteger();
+        Config config = new Config(new AtomicIOTest.LinesBackend(ConfigIO.path(file, StandardCharsets.UTF_8)) {
+            @Override
+            public Map<Object, Object> load(Reader reader) {
+                loads.incrementAndGet();
+                return super.load(reader);
+            }
+        });
+        config.load();
+
+        Key<String> key = config.getRootKey().getKey("a", String.class);
+        ReloadService reloadService = new ReloadService(Duration.ofMillis(100));
+
+        try {
+            ReloadService.Registration registration = reloadService.watch(config);
+            Assert.assertEquals(file, registration.getFile());
+
+            // Same content, must not reload
+            Files.write(file, "a=1\n".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(500);
+            Assert.assertEquals(1, loads.get());
+
+            for (int i = 2; i <= 5; ++i) {
+                Files.write(file, ("a=" + i + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+
+            long deadline = System.currentTimeMillis() + 10_000;
+
+            while (!"5".equals(key.getValue()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            Assert.assertEquals("5", key.getValue());
+            Assert.assertEquals(2, loads.get());
+        } finally {
+            reloadService.close();
+            ReloadServiceTest.delete(dir, file);
+        }
+    }
+
+    @Test
+    public void defaultErrorHandlerTest() throws Exception {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.txt");
+        Files.write(file, "a=1\n".getBytes(StandardCharsets.UTF_8));
+
+        Config config = new Config(new AtomicIOTest.LinesBackend(ConfigIO.path(file, StandardCharsets.UTF_8)));
+        config.load();
+
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        CompletableFuture<Throwable> reported = new CompletableFuture<>();
+        ReloadService reloadService = new ReloadService(Duration.ofMillis(100));
+
+        Thread.setDefaultUncaughtExceptionHandler((thread, throwable) -> reported.complete(throwable));
+
+        try {
+            reloadService.watch(config);
+
+            // Line without separator fails to load
+            Files.write(file, "broken\n".getBytes(StandardCharsets.UTF_8));
+
+            Assert.assertNotNull(reported.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals("1", config.getRootKey().getKey("a", String.class).getValue());
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+            reloadService.close();
+            ReloadServiceTest.delete(dir, file);
+        }
+    }
+
+    @Test
+    public void retryFailedReloadTest() throws Exception {
+        Path dir = Files.createTempDirectory("config");
+        Path file = dir.resolve("config.txt");
+        Files.write(file, "a=1\n".getBytes(StandardCharsets.UTF_8));
+
+        AtomicInteger failures = new AtomicInteger();
+        Config config = new Config(new AtomicIOTest.LinesBackend(ConfigIO.path(file, StandardCharsets.UTF_8)) {
+            @Override
+            public Map<Object, Object> load(Reader reader) {
+                Map<Object, Object> map = super.load(reader);
+
+                // First load of new content fails
+                if (map.containsValue("2") && failures.getAndIncrement() == 0)
+                    throw new IllegalStateException("Transient failure");
+
+                return map;
+            }
+        });
+        config.load();
+
+        CompletableFuture<Throwable> reported = new CompletableFuture<>();
+        ReloadService reloadService = new ReloadService(Duration.ofMillis(100), (c, t) -> reported.complete(t));
+
+        try {
+            reloadService.watch(config);
+
+            Files.write(file, "a=2\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertNotNull(reported.get(10, TimeUnit.SECONDS));
+
+            // Same content, must be loaded again since previous load failed
+            Files.write(file, "a=2\n".getBytes(StandardCharsets.UTF_8));
+
+            Key<String> key = config.getRootKey().getKey("a", String.class);
+            long deadline = System.currentTimeMillis() + 10_000;
+
+            while (!"2".equals(key.getValue()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            Assert.assertEquals("2", key.getValue());
+        } finally {
+            reloadService.close();
+            ReloadServiceTest.delete(dir, file);
+        }
+    }
+
+    private static void delete(Path dir, Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+}
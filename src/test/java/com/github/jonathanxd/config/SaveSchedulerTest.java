@@ -0,0 +1,147 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.MapBackend;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SaveSchedulerTest {
+
+    @Test
+    public void coalesceTest() throws Exception {
+        AtomicInteger saves = new AtomicInteger();
+        MapBackend backend = new MapBackend() {
+            @Override
+            public void save(Map<Object, Object> map) {
+                saves.incrementAndGet();
+                super.save(map);
+            }
+        };
+
+        Config config = new Config(backend, StorageMode.CONCURRENT);
+        SaveScheduler scheduler = new SaveScheduler(config, Duration.ofSeconds(10), Duration.ofSeconds(30));
+        Key<Integer> key = config.getRootKey().getKey("counter", Integer.class);
+
+        CompletableFuture<Void> first = null;
+
+        for (int i = 0; i < 100; ++i) {
+            key.setInt(i);
+            CompletableFuture<Void> future = scheduler.schedule();
+
+            if (first == null)
+                first = future;
+
+            Assert.assertSame(first, future);
+        }
+
+        Assert.assertEquals(0, saves.get());
+
+        scheduler.flush().get(10, TimeUnit.SECONDS);
+
+        Assert.assertTrue(first.isDone());
+        Assert.assertEquals(1, saves.get());
+        Assert.assertEquals(99, backend.getBackendMap().get("counter"));
+
+        scheduler.close().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, saves.get());
+    }
+
+    @Test
+    public void maxDelayTest() throws Exception {
+        MapBackend backend = new MapBackend();
+        Config config = new Config(backend, StorageMode.CONCURRENT);
+        SaveScheduler scheduler = new SaveScheduler(config, Duration.ofMillis(200), Duration.ofMillis(300));
+        Key<Integer> key = config.getRootKey().getKey("counter", Integer.class);
+
+        key.setInt(0);
+        CompletableFuture<Void> first = scheduler.schedule();
+
+        // Keeps postponing the save, max delay must save it anyway
+        int i = 1;
+
+        for (; !first.isDone() && i < 100; ++i) {
+            Thread.sleep(50);
+            key.setInt(i);
+            scheduler.schedule();
+        }
+
+        Assert.assertTrue(first.isDone());
+        Assert.assertTrue(i < 100);
+        Assert.assertTrue(backend.getBackendMap().containsKey("counter"));
+
+        scheduler.close().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedTest() {
+        SaveScheduler scheduler = new SaveScheduler(new Config(new MapBackend()), Duration.ZERO, Duration.ZERO);
+
+        scheduler.close().join();
+        scheduler.schedule();
+    }
+
+    @Test
+    public void rejectedTest() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        SaveScheduler scheduler = new SaveScheduler(new Config(new MapBackend()), Duration.ofSeconds(10), Duration.ofSeconds(10), executor);
+
+        CompletableFuture<Void> pending = scheduler.schedule();
+        executor.shutdown();
+
+        // Pending save could not be submitted to the executor
+        CompletableFuture<Void> flushed = scheduler.flush();
+
+        Assert.assertSame(pending, flushed);
+        assertRejected(flushed);
+
+        // New saves are rejected by the executor too
+        assertRejected(scheduler.schedule());
+        assertRejected(scheduler.close());
+    }
+
+    private static void assertRejected(CompletableFuture<Void> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail("Save must be rejected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.serialize.Serializer;
+import com.github.jonathanxd.config.serialize.Serializers;
+import com.github.jonathanxd.iutils.type.TypeInfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+public class SerializerResolutionTest {
+
+    @Test
+    public void negativeResolutionIsInvalidatedOnRegister() {
+        Serializers serializers = new Serializers();
+        TypeInfo<Local> type = TypeInfo.of(Local.class);
+
+        Assert.assertFalse(serializers.hasSerializer(type));
+
+        serializers.register(type, new LocalSerializer());
+
+        Assert.assertTrue(serializers.hasSerializer(type));
+        Assert.assertTrue(serializers.findSerializer(type).get() instanceof LocalSerializer);
+    }
+
+    @Test
+    public void globalRegistrationInvalidatesLocalResolution() {
+        Serializers serializers = new Serializers();
+        TypeInfo<Global> type = TypeInfo.of(Global.class);
+
+        Assert.assertFalse(serializers.hasSerializer(type));
+
+        Serializers.GLOBAL.register(type, new GlobalSerializer());
+
+        Assert.assertTrue(serializers.hasSerializer(type));
+    }
+
+    @Test
+    public void resolvesToSameSerializer() {
+        Serializers serializers = new Serializers();
+
+        Assert.assertSame(serializers.findSerializer(CommonTypes.STRING).get(),
+                serializers.findSerializer(CommonTypes.STRING).get());
+    }
+
+    @Test(timeout = 30000)
+    public void registrationWhileResolving() throws Exception {
+        TypeInfo<Local> type = TypeInfo.of(Local.class);
+
+        for (int i = 0; i < 2000; ++i) {
+            Serializers serializers = new Serializers();
+            CyclicBarrier barrier = new CyclicBarrier(2);
+
+            Thread resolver = new Thread(() -> {
+                await(barrier);
+
+                for (int r = 0; r < 10; ++r) {
+                    serializers.findSerializer(type);
+                }
+            });
+
+            resolver.start();
+            await(barrier);
+            serializers.register(type, new LocalSerializer());
+            resolver.join();
+
+            // A resolution that raced with the registration must not stay cached
+            Assert.assertTrue("Iteration " + i, serializers.findSerializer(type).orElse(null) instanceof LocalSerializer);
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Local {
+    }
+
+    static final class Global {
+    }
+
+    static class LocalSerializer implements Serializer<Local> {
+        @Override
+        public void serialize(Local value, Key<Local> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
+        }
+
+        @Override
+        public Local deserialize(Key<Local> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
+            return new Local();
+        }
+    }
+
+    static class GlobalSerializer implements Serializer<Global> {
+        @Override
+        public void serialize(Global value, Key<Global> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
+        }
+
+        @Override
+        public Global deserialize(Key<Global> key, TypeInfo<?> typeInfo, Storage storage, Serializers serializers) {
+            return new Global();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ *      Config - Configuration library <https://github.com/JonathanxD/Config>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2022 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.config;
+
+import com.github.jonathanxd.config.backend.LazyValue;
+import com.github.jonathanxd.config.backend.StreamingBackend;
+import com.github.jonathanxd.config.backend.TreeBuilder;
+import com.github.jonathanxd.config.backend.TreeHandler;
+import com.github.jonathanxd.config.backend.TreeSource;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StreamingBackendTest {
+
+    @Test
+    public void streamingLoadTest() {
+        Config config = new Config(new EventBackend(), StorageMode.CONCURRENT);
+        config.load();
+
+        Key<?> root = config.getRootKey();
+
+        Assert.assertEquals("Config", root.getKey("name", String.class).getValue());
+        Assert.assertEquals(Boolean.TRUE, root.getKey("section", Void.class).getKey("enabled", Boolean.class).getValue());
+
+        Map<?, ?> tree = (Map<?, ?>) root.getValue();
+        Assert.assertTrue(tree.get("values") instanceof CopyOnWriteArrayList<?>);
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), tree.get("values"));
+        Assert.assertEquals(Arrays.asList("name", "values", "section", "empty"), Arrays.asList(tree.keySet().toArray()));
+        Assert.assertEquals(Collections.emptyList(), tree.get("empty"));
+    }
+
+    @Test
+    public void streamingSaveTest() {
+        EventBackend backend = new EventBackend();
+        Config config = new Config(backend, StorageMode.CONCURRENT);
+        config.load();
+
+        config.getRootKey().getKey("section", Void.class).getKey("name", String.class).setValue("Section");
+        config.save();
+
+        Map<Object, Object> saved = backend.saved.getRoot();
+
+        Assert.assertEquals(config.getRootKey().getValue(), saved);
+        Assert.assertEquals("Section", ((Map<?, ?>) saved.get("section")).get("name"));
+    }
+
+    @Test
+    public void lazyValueTest() {
+        AtomicInteger loads = new AtomicInteger();
+        LazyValue section = handler -> {
+            loads.incrementAndGet();
+            handler.startMap();
+            handler.key("enabled");
+            handler.value(true);
+            handler.endMap();
+        };
+
+        EventBackend backend = new EventBackend() {
+            @Override
+            public void load(TreeHandler handler) {
+                handler.startMap();
+                handler.key("name");
+                handler.value("Config");
+                handler.key("section");
+                handler.value(section);
+                handler.endMap();
+            }
+        };
+
+        Config config = new Config(backend);
+        config.load();
+
+        Assert.assertEquals("Config", config.getRootKey().getKey("name", String.class).getValue());
+        Assert.assertEquals(0, loads.get());
+
+        Key<Boolean> enabled = config.getRootKey().getKey("section", Void.class).getKey("enabled", Boolean.class);
+
+        Assert.assertEquals(Boolean.TRUE, enabled.getValue());
+        Assert.assertEquals(Boolean.TRUE, enabled.compile().getValue());
+        Assert.assertEquals(1, loads.get());
+
+        config.load();
+        config.save();
+
+        // Saved straight from the lazy value, without resolving it in the tree
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(Collections.singletonMap("enabled", true), backend.saved.getRoot().get("section"));
+
+        Assert.assertEquals(Collections.singletonMap("enabled", true), ((Map<?, ?>) config.getRootKey().getValue()).get("section"));
+        Assert.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void saveDoesNotBlockWritesTest() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        EventBackend backend = new EventBackend() {
+            @Override
+            public void save(TreeSource source) {
+                super.save(source);
+
+                // Renders and writes the document, other threads must still be able to write
+                TreeBuilder builder = new TreeBuilder(StorageMode.DEFAULT);
+                source.accept(new TreeHandler() {
+                    @Override
+                    public void startMap() {
+                        builder.startMap();
+                    }
+
+                    @Override
+                    public void key(Object key) {
+                        builder.key(key);
+                    }
+
+                    @Override
+                    public void endMap() {
+                        builder.endMap();
+                    }
+
+                    @Override
+                    public void startList() {
+                        builder.startList();
+                    }
+
+                    @Override
+                    public void endList() {
+                        builder.endList();
+                    }
+
+                    @Override
+                    public void value(Object value) {
+                        if (writer[0] != null && writer[0].getState() == Thread.State.NEW) {
+                            writer[0].start();
+
+                            try {
+                                writer[0].join(5000);
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }
+
+                        builder.value(value);
+                    }
+                });
+            }
+        };
+
+        Config config = new Config(backend, StorageMode.CONCURRENT);
+        config.load();
+
+        Key<Boolean> enabled = config.getRootKey().getKey("section", Void.class).getKey("enabled", Boolean.class);
+        writer[0] = new Thread(() -> {
+            config.getRootKey().getKey("name", String.class).setValue("Changed");
+            enabled.setValue(false);
+        });
+
+        config.save();
+
+        Assert.assertFalse(writer[0].isAlive());
+        Assert.assertEquals(Boolean.FALSE, enabled.getValue());
+    }
+
+    @Test
+    public void malformedDocumentTest() {
+        TreeBuilder builder = new TreeBuilder(StorageMode.DEFAULT);
+
+        try {
+            builder.startList();
+            Assert.fail("List root should be rejected");
+        } catch (IllegalStateException ignored) {
+        }
+
+        builder.startMap();
+
+        try {
+            builder.value("a");
+            Assert.fail("Value without key should be rejected");
+        } catch (IllegalStateException ignored) {
+        }
+
+        try {
+            builder.getRoot();
+            Assert.fail("Incomplete document should be rejected");
+        } catch (IllegalStateException ignored) {
+        }
+
+        builder.key("a");
+        builder.value("b");
+        builder.endMap();
+
+        Assert.assertEquals(Collections.singletonMap("a", "b"), builder.getRoot());
+    }
+
+    static class EventBackend implements StreamingBackend {
+        TreeBuilder saved;
+
+        @Override
+        public void load(TreeHandler handler) {
+            handler.startMap();
+            handler.key("name");
+            handler.value("Config");
+            handler.key("values");
+            handler.startList();
+            handler.value(1L);
+            handler.value(2L);
+            handler.value(3L);
+            handler.endList();
+            handler.key("section");
+            handler.startMap();
+            handler.key("enabled");
+            handler.value(true);
+            handler.endMap();
+            handler.key("empty");
+            handler.startList();
+            handler.endList();
+            handler.endMap();
+        }
+
+        @Override
+        public void save(TreeSource source) {
+            this.saved = new TreeBuilder(StorageMode.DEFAULT);
+            source.accept(this.saved);
+        }
+
+        @Override
+        public void save(Map<Object, Object> map) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Object, Object> load() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}